@@ -0,0 +1,50 @@
+#!/usr/bin/env sh
+# Benchmarks JMH des chemins critiques du framework (routage, binding,
+# conversion, JSON, sessions, sécurité).
+#
+#   bench/run.sh                      tous les benchmarks
+#   bench/run.sh RouterBenchmark      filtre JMH (expression régulière)
+#   bench/run.sh -f 1 -wi 3 -i 5 ...  options JMH transmises telles quelles
+#
+# Les jars JMH et l'API Servlet sont téléchargés une fois dans bench/lib.
+# Les résultats sont écrits en JSON dans bench/target/results.json
+# (RESULTS=chemin pour changer de fichier).
+set -eu
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+BENCH="$ROOT/bench"
+LIB="$BENCH/lib"
+TARGET="$BENCH/target"
+RESULTS=${RESULTS:-"$TARGET/results.json"}
+JMH_VERSION=${JMH_VERSION:-1.37}
+REPO=${MAVEN_REPO:-https://repo1.maven.org/maven2}
+
+fetch() {
+    # fetch <chemin dans le dépôt Maven> <fichier>
+    if [ ! -f "$LIB/$2" ]; then
+        echo "Téléchargement de $2"
+        curl -sSfL -o "$LIB/$2" "$REPO/$1/$2"
+    fi
+}
+
+mkdir -p "$LIB" "$TARGET/classes"
+fetch org/openjdk/jmh/jmh-core/$JMH_VERSION jmh-core-$JMH_VERSION.jar
+fetch org/openjdk/jmh/jmh-generator-annprocess/$JMH_VERSION jmh-generator-annprocess-$JMH_VERSION.jar
+fetch net/sf/jopt-simple/jopt-simple/5.0.4 jopt-simple-5.0.4.jar
+fetch org/apache/commons/commons-math3/3.6.1 commons-math3-3.6.1.jar
+fetch jakarta/servlet/jakarta.servlet-api/6.0.0 jakarta.servlet-api-6.0.0.jar
+
+# Les classes compilées passent devant framework.jar, qui ne fournit ici que
+# les classes absentes des sources (Controller, ClassDetector)
+CP="$TARGET/classes:$ROOT/lib/*:$LIB/*:$ROOT/framework.jar"
+
+rm -rf "$TARGET/classes"
+mkdir -p "$TARGET/classes"
+find "$ROOT/src/main/java" "$BENCH/src/main/java" -name '*.java' > "$TARGET/sources.txt"
+javac -encoding UTF-8 --release 17 -parameters -nowarn \
+    -cp "$CP" \
+    -processorpath "$LIB/jmh-generator-annprocess-$JMH_VERSION.jar:$LIB/jmh-core-$JMH_VERSION.jar" \
+    -d "$TARGET/classes" @"$TARGET/sources.txt"
+
+java -cp "$CP" org.openjdk.jmh.Main -rf json -rff "$RESULTS" "$@"
+echo "Résultats : $RESULTS"
@@ -0,0 +1,47 @@
+package servlet.bench;
+
+import java.util.List;
+
+/**
+ * Méthodes de contrôleur et classes de formulaire utilisées par
+ * BindingBenchmark
+ */
+public class BenchForms {
+
+    public String primitive(int id, String name, double price, boolean active) {
+        return name;
+    }
+
+    public String nested(Customer customer) {
+        return customer.name;
+    }
+
+    public String indexed(Order order) {
+        return order.reference;
+    }
+
+    public static class Address {
+        public String street;
+        public String city;
+        public int zip;
+    }
+
+    public static class Customer {
+        public String name;
+        public int age;
+        public Address address;
+        public Address billing;
+    }
+
+    public static class Item {
+        public String name;
+        public int quantity;
+        public double price;
+    }
+
+    public static class Order {
+        public String reference;
+        public Customer customer;
+        public List<Item> items;
+    }
+}
@@ -0,0 +1,98 @@
+package servlet.bench;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import jakarta.servlet.http.HttpServletRequest;
+import servlet.binding.ArgumentResolver;
+import servlet.binding.BindingContext;
+import servlet.utils.MethodInvoker;
+import servlet.utils.PathParams;
+import servlet.utils.RouteMatch;
+
+/**
+ * ArgumentResolver.resolve pour un formulaire de types simples (dont un
+ * paramètre de chemin), un objet imbriqué et une liste indexée (items[i].x).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BindingBenchmark {
+
+    @Param({ "20" })
+    public int items;
+
+    private ArgumentResolver resolver;
+
+    private RouteMatch primitiveMatch;
+    private HttpServletRequest primitiveRequest;
+
+    private RouteMatch nestedMatch;
+    private HttpServletRequest nestedRequest;
+
+    private RouteMatch indexedMatch;
+    private HttpServletRequest indexedRequest;
+
+    @Setup
+    public void setup() throws Exception {
+        resolver = new ArgumentResolver();
+
+        primitiveMatch = match("primitive", new String[] { "id" },
+                new PathParams(new String[] { "id" }, "/products/42", new int[] { 10, 12 }), int.class,
+                String.class, double.class, boolean.class);
+        primitiveRequest = InMemoryExchange.request("GET", "/products/42")
+                .param("name", "Clavier").param("price", "49.90").param("active", "true").build();
+
+        nestedMatch = match("nested", new String[0], PathParams.EMPTY, BenchForms.Customer.class);
+        nestedRequest = InMemoryExchange.request("POST", "/customers")
+                .param("customer.name", "Rakoto").param("customer.age", "34")
+                .param("customer.address.street", "Lot II A 12").param("customer.address.city", "Antananarivo")
+                .param("customer.address.zip", "101")
+                .param("customer.billing.street", "BP 1234").param("customer.billing.city", "Toamasina")
+                .param("customer.billing.zip", "501")
+                .build();
+
+        indexedMatch = match("indexed", new String[0], PathParams.EMPTY, BenchForms.Order.class);
+        InMemoryExchange.RequestBuilder order = InMemoryExchange.request("POST", "/orders")
+                .param("order.reference", "CMD-2024-001").param("order.customer.name", "Rabe");
+        for (int i = 0; i < items; i++) {
+            order.param("order.items[" + i + "].name", "Article " + i)
+                    .param("order.items[" + i + "].quantity", String.valueOf(i + 1))
+                    .param("order.items[" + i + "].price", String.valueOf(9.99 + i));
+        }
+        indexedRequest = order.build();
+    }
+
+    private RouteMatch match(String methodName, String[] pathParamNames, PathParams pathParams,
+            Class<?>... parameterTypes) throws Exception {
+        Method method = BenchForms.class.getMethod(methodName, parameterTypes);
+        MethodInvoker invoker = new MethodInvoker(BenchForms.class, method);
+        invoker.setBindingPlan(resolver.compile(method, pathParamNames));
+        return new RouteMatch(invoker, pathParams);
+    }
+
+    @Benchmark
+    public Object[] primitive() throws Exception {
+        return resolver.resolve(primitiveMatch,
+                new BindingContext(primitiveRequest, primitiveMatch.getPathParams(), null));
+    }
+
+    @Benchmark
+    public Object[] nestedObject() throws Exception {
+        return resolver.resolve(nestedMatch, new BindingContext(nestedRequest, PathParams.EMPTY, null));
+    }
+
+    @Benchmark
+    public Object[] indexedArray() throws Exception {
+        return resolver.resolve(indexedMatch, new BindingContext(indexedRequest, PathParams.EMPTY, null));
+    }
+}
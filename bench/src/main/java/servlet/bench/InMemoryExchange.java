@@ -0,0 +1,266 @@
+package servlet.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Requête et réponse en mémoire pour les benchmarks : pas de conteneur, pas
+ * d'E/S. Les méthodes non simulées renvoient null / 0 / false.
+ */
+public final class InMemoryExchange {
+
+    private InMemoryExchange() {
+    }
+
+    public static RequestBuilder request(String method, String uri) {
+        return new RequestBuilder(method, uri);
+    }
+
+    public static class RequestBuilder {
+        private final String method;
+        private final String uri;
+        private final Map<String, String[]> params = new LinkedHashMap<>();
+        private final Map<String, String> headers = new HashMap<>();
+        private Cookie[] cookies;
+        private String contentType;
+
+        RequestBuilder(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+
+        public RequestBuilder param(String name, String... values) {
+            params.put(name, values);
+            return this;
+        }
+
+        public RequestBuilder header(String name, String value) {
+            headers.put(name.toLowerCase(Locale.ROOT), value);
+            return this;
+        }
+
+        public RequestBuilder cookie(String name, String value) {
+            cookies = new Cookie[] { new Cookie(name, value) };
+            return this;
+        }
+
+        public RequestBuilder contentType(String contentType) {
+            this.contentType = contentType;
+            return this;
+        }
+
+        /**
+         * Construit la requête. Les attributs sont propres à chaque appel de
+         * build() ; les paramètres sont partagés (lecture seule).
+         */
+        public HttpServletRequest build() {
+            Map<String, String[]> parameterMap = Collections.unmodifiableMap(new LinkedHashMap<>(params));
+            Map<String, Object> attributes = new HashMap<>();
+            Cookie[] requestCookies = cookies;
+            String requestContentType = contentType;
+
+            return (HttpServletRequest) Proxy.newProxyInstance(InMemoryExchange.class.getClassLoader(),
+                    new Class<?>[] { HttpServletRequest.class }, (proxy, m, args) -> {
+                        switch (m.getName()) {
+                            case "getMethod":
+                                return method;
+                            case "getRequestURI":
+                                return uri;
+                            case "getContextPath":
+                            case "getServletPath":
+                                return "";
+                            case "getPathInfo":
+                                return uri;
+                            case "getParameterMap":
+                                return parameterMap;
+                            case "getParameter": {
+                                String[] values = parameterMap.get((String) args[0]);
+                                return values != null ? values[0] : null;
+                            }
+                            case "getParameterValues":
+                                return parameterMap.get((String) args[0]);
+                            case "getParameterNames":
+                                return Collections.enumeration(parameterMap.keySet());
+                            case "getHeader":
+                                return headers.get(((String) args[0]).toLowerCase(Locale.ROOT));
+                            case "getHeaders":
+                            case "getHeaderNames":
+                                return Collections.emptyEnumeration();
+                            case "getCookies":
+                                return requestCookies;
+                            case "getContentType":
+                                return requestContentType;
+                            case "getAttribute":
+                                return attributes.get((String) args[0]);
+                            case "setAttribute":
+                                attributes.put((String) args[0], args[1]);
+                                return null;
+                            case "removeAttribute":
+                                attributes.remove((String) args[0]);
+                                return null;
+                            case "getCharacterEncoding":
+                                return "UTF-8";
+                            case "getDispatcherType":
+                                return DispatcherType.REQUEST;
+                            case "getContentLength":
+                            case "getIntHeader":
+                                return -1;
+                            case "getContentLengthLong":
+                            case "getDateHeader":
+                                return -1L;
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            case "toString":
+                                return "InMemoryRequest[" + method + " " + uri + "]";
+                            default:
+                                return defaultValue(m.getReturnType());
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Réponse dont le corps est accumulé dans un tampon réutilisable
+     */
+    public static class Response {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+        private final Map<String, String> headers = new HashMap<>();
+        private int status = 200;
+        private PrintWriter writer;
+        private final HttpServletResponse proxy;
+
+        public Response() {
+            ServletOutputStream output = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                }
+
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    body.write(b, off, len);
+                }
+            };
+
+            proxy = (HttpServletResponse) Proxy.newProxyInstance(InMemoryExchange.class.getClassLoader(),
+                    new Class<?>[] { HttpServletResponse.class }, (p, m, args) -> {
+                        switch (m.getName()) {
+                            case "getWriter":
+                                if (writer == null) {
+                                    writer = new PrintWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+                                }
+                                return writer;
+                            case "getOutputStream":
+                                return output;
+                            case "setStatus":
+                                status = (Integer) args[0];
+                                return null;
+                            case "getStatus":
+                                return status;
+                            case "setHeader":
+                            case "addHeader":
+                                headers.put((String) args[0], (String) args[1]);
+                                return null;
+                            case "getHeader":
+                                return headers.get((String) args[0]);
+                            case "containsHeader":
+                                return headers.containsKey((String) args[0]);
+                            case "getCharacterEncoding":
+                                return "UTF-8";
+                            case "hashCode":
+                                return System.identityHashCode(p);
+                            case "equals":
+                                return p == args[0];
+                            case "toString":
+                                return "InMemoryResponse[" + status + "]";
+                            default:
+                                return defaultValue(m.getReturnType());
+                        }
+                    });
+        }
+
+        public HttpServletResponse get() {
+            return proxy;
+        }
+
+        public int bodySize() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return body.size();
+        }
+
+        public String bodyAsString() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return body.toString(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Vide le tampon pour réutiliser la réponse à l'itération suivante
+         */
+        public void reset() {
+            if (writer != null) {
+                writer.flush();
+            }
+            body.reset();
+            headers.clear();
+            status = 200;
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == char.class) {
+            return (char) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
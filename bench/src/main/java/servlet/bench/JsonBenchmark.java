@@ -0,0 +1,99 @@
+package servlet.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import servlet.api.ApiResponse;
+import servlet.utils.JsonUtil;
+
+/**
+ * JsonUtil.toJson sur une ApiResponse contenant un objet ou une liste d'objets,
+ * et écriture directe dans un flux avec le writer mis en cache par type de
+ * retour (chemin utilisé par ResponseRenderer)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    @Param({ "100" })
+    public int size;
+
+    private ApiResponse<Product> single;
+    private ApiResponse<List<Product>> list;
+    private ObjectWriter listWriter;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    public static class Product {
+        private final long id;
+        private final String name;
+        private final double price;
+        private final List<String> tags;
+
+        Product(long id) {
+            this.id = id;
+            this.name = "Produit " + id;
+            this.price = 10 + id * 0.5;
+            this.tags = List.of("promo", "stock");
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        single = ApiResponse.success(new Product(1));
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            products.add(new Product(i));
+        }
+        list = ApiResponse.success(products);
+        listWriter = JsonUtil.responseWriter(new TypeReference<List<Product>>() {
+        }.getType(), false);
+    }
+
+    @Benchmark
+    public String singleObject() throws Exception {
+        return JsonUtil.toJson(single);
+    }
+
+    @Benchmark
+    public String list() throws Exception {
+        return JsonUtil.toJson(list);
+    }
+
+    @Benchmark
+    public int listStreamed() throws Exception {
+        out.reset();
+        listWriter.writeValue(out, list);
+        return out.size();
+    }
+}
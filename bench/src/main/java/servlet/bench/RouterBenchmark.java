@@ -0,0 +1,71 @@
+package servlet.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import servlet.utils.MethodInvoker;
+import servlet.utils.RouteMatch;
+import servlet.utils.UrlRouter;
+
+/**
+ * UrlRouter.findByUrl sur 10 / 100 / 1 000 routes, moitié statiques, moitié
+ * avec paramètre de chemin, avec et sans cache des URLs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RouterBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int routes;
+
+    @Param({ "0", "1024" })
+    public int cacheSize;
+
+    private UrlRouter router;
+    private String[] urls;
+    private int next;
+
+    @Setup
+    public void setup() {
+        router = new UrlRouter(cacheSize);
+        MethodInvoker invoker = new MethodInvoker(null, null);
+        for (int i = 0; i < routes; i++) {
+            if (i % 2 == 0) {
+                router.addRoute("/api/module" + i + "/items", "GET", invoker);
+            } else {
+                router.addRoute("/api/module" + i + "/items/{id}", "GET", invoker);
+            }
+        }
+        router.compile();
+
+        Random random = new Random(42);
+        urls = new String[256];
+        for (int i = 0; i < urls.length; i++) {
+            int route = random.nextInt(routes);
+            urls[i] = route % 2 == 0
+                    ? "/api/module" + route + "/items"
+                    : "/api/module" + route + "/items/" + random.nextInt(100_000);
+        }
+    }
+
+    @Benchmark
+    public RouteMatch findByUrl() {
+        String url = urls[next++ & (urls.length - 1)];
+        return router.findByUrl(url, "GET");
+    }
+
+    @Benchmark
+    public RouteMatch notFound() {
+        return router.findByUrl("/api/unknown/path", "GET");
+    }
+}
@@ -0,0 +1,83 @@
+package servlet.bench;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import servlet.annotations.Authorized;
+import servlet.annotations.Role;
+import servlet.security.SecurityChecker;
+import servlet.security.SecurityConfig;
+import servlet.security.SecurityPolicy;
+import servlet.session.CustomSession;
+
+/**
+ * SecurityChecker.checkAuthorization : lecture des annotations à chaque appel
+ * (Method) et règle précalculée par route (SecurityPolicy).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SecurityBenchmark {
+
+    private SecurityChecker checker;
+    private CustomSession session;
+    private Method publicMethod;
+    private Method authorizedMethod;
+    private Method roleMethod;
+    private SecurityPolicy rolePolicy;
+
+    public static class Secured {
+        public void open() {
+        }
+
+        @Authorized
+        public void authenticated() {
+        }
+
+        @Role("admin")
+        public void admin() {
+        }
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        checker = new SecurityChecker();
+        SecurityConfig config = SecurityConfig.getInstance();
+        session = new CustomSession("bench");
+        session.setAttribute(config.getAuthSessionVariable(), Boolean.TRUE);
+        session.setAttribute(config.getRoleSessionVariable(), new String[] { "user", "admin" });
+
+        publicMethod = Secured.class.getMethod("open");
+        authorizedMethod = Secured.class.getMethod("authenticated");
+        roleMethod = Secured.class.getMethod("admin");
+        rolePolicy = SecurityPolicy.forMethod(roleMethod);
+    }
+
+    @Benchmark
+    public void publicMethod() throws Exception {
+        checker.checkAuthorization(publicMethod, session);
+    }
+
+    @Benchmark
+    public void authorizedMethod() throws Exception {
+        checker.checkAuthorization(authorizedMethod, session);
+    }
+
+    @Benchmark
+    public void roleMethod() throws Exception {
+        checker.checkAuthorization(roleMethod, session);
+    }
+
+    @Benchmark
+    public void rolePolicy() throws Exception {
+        checker.checkAuthorization(rolePolicy, session);
+    }
+}
@@ -0,0 +1,63 @@
+package servlet.bench;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import servlet.session.CustomSession;
+import servlet.session.SessionManager;
+
+/**
+ * SessionManager.getSession et createSession avec 8 threads concurrents.
+ * Les sessions créées sont invalidées aussitôt pour que la table ne grossisse
+ * pas pendant la mesure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class SessionBenchmark {
+
+    private String[] ids;
+
+    @Setup
+    public void setup() {
+        ids = new String[1024];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = SessionManager.createSession().getSessionId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (String id : ids) {
+            SessionManager.invalidateSession(id);
+        }
+    }
+
+    @Benchmark
+    public CustomSession getSession() {
+        return SessionManager.getSession(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public CustomSession getMissingSession() {
+        return SessionManager.getSession("inconnue-" + ThreadLocalRandom.current().nextInt(1024));
+    }
+
+    @Benchmark
+    public String createSession() {
+        CustomSession session = SessionManager.createSession();
+        SessionManager.invalidateSession(session.getSessionId());
+        return session.getSessionId();
+    }
+}
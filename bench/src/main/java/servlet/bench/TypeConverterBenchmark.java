@@ -0,0 +1,52 @@
+package servlet.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import servlet.binding.TypeConverter;
+
+/**
+ * TypeConverter.convert par type cible (choix du convertisseur à chaque appel)
+ * et avec un convertisseur choisi d'avance, comme dans les plans de binding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TypeConverterBenchmark {
+
+    private final String intValue = "123456";
+    private final String doubleValue = "3.14159";
+    private final String booleanValue = "true";
+    private final TypeConverter.Converter intConverter = TypeConverter.forType(int.class);
+
+    @Benchmark
+    public Object convertInt() {
+        return TypeConverter.convert(intValue, int.class);
+    }
+
+    @Benchmark
+    public Object convertDouble() {
+        return TypeConverter.convert(doubleValue, Double.class);
+    }
+
+    @Benchmark
+    public Object convertBoolean() {
+        return TypeConverter.convert(booleanValue, boolean.class);
+    }
+
+    @Benchmark
+    public Object convertString() {
+        return TypeConverter.convert(intValue, String.class);
+    }
+
+    @Benchmark
+    public Object convertIntPrecomputed() {
+        return TypeConverter.convert(intValue, intConverter);
+    }
+}
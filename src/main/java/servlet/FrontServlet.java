@@ -1,22 +1,64 @@
 package servlet;
 
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import servlet.async.AsyncTimeoutException;
+import servlet.async.BulkheadFullException;
+import servlet.async.PinningMonitor;
+import servlet.async.VirtualThreads;
 import servlet.binding.ArgumentResolver;
+import servlet.binding.BadRequestException;
+import servlet.binding.BindingContext;
+import servlet.binding.PayloadTooLargeException;
+import servlet.binding.UnsupportedMediaTypeException;
+import servlet.metrics.MetricsRegistry;
+import servlet.metrics.Phase;
+import servlet.metrics.RequestTimer;
+import servlet.cache.CachePolicy;
+import servlet.cache.CachingResponse;
+import servlet.cache.ResponseCache;
+import servlet.config.FrameworkConfig;
+import servlet.file.StaticResources;
+import servlet.response.CompressingResponse;
+import servlet.response.ResponseCompressor;
 import servlet.response.ResponseRenderer;
+import servlet.scope.PoolExhaustedException;
 import servlet.security.ForbiddenException;
 import servlet.security.SecurityChecker;
+import servlet.security.SecurityPolicy;
 import servlet.security.UnauthorizedException;
 import servlet.session.CustomSession;
+import servlet.session.SessionResolver;
+import servlet.trace.RequestTrace;
+import servlet.trace.Tracer;
+import servlet.utils.MethodInvoker;
+import servlet.utils.RegisteredRoute;
 import servlet.utils.RouteMatch;
 import servlet.utils.UrlRouter;
+import servlet.warmup.SyntheticExchange;
+import servlet.warmup.Warmup;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @MultipartConfig(fileSizeThreshold = 1024 * 1024, // 1 MB
         maxFileSize = 1024 * 1024 * 10, // 10 MB
@@ -28,8 +70,16 @@ public class FrontServlet extends HttpServlet {
     private ArgumentResolver argumentResolver;
     private ResponseRenderer responseRenderer;
     private SecurityChecker securityChecker;
-
-    private static final boolean DEBUG = true;
+    private Warmup warmup;
+    private Tracer tracer;
+    private MetricsRegistry metrics;
+    private String readinessPath;
+    private long asyncTimeout;
+    private ExecutorService virtualThreads;
+    private PinningMonitor pinningMonitor;
+    private ResponseCache responseCache;
+    private ResponseCompressor compressor;
+    private StaticResources staticResources;
 
     @Override
     public void init() {
@@ -40,34 +90,163 @@ public class FrontServlet extends HttpServlet {
         }
         argumentResolver = new ArgumentResolver();
         responseRenderer = new ResponseRenderer();
+        // Cache des vues (et sa surveillance des fichiers) prêt avant la première requête
+        responseRenderer.getViewResolver(context);
         securityChecker = new SecurityChecker();
+        tracer = new Tracer();
+        context.setAttribute("tracer", tracer);
+        metrics = new MetricsRegistry(routes);
+        context.setAttribute("metrics", metrics);
+        responseCache = ResponseCache.getInstance();
+        compressor = new ResponseCompressor();
+        staticResources = StaticResources.create(context, responseRenderer.getFileSender());
+
+        // Délai accordé aux résultats asynchrones (CompletionStage), en ms
+        FrameworkConfig config = FrameworkConfig.getInstance();
+        asyncTimeout = config.getLong("framework.async.timeout", 30000);
+        if ("virtual".equalsIgnoreCase(config.getString("framework.execution", "container"))) {
+            startVirtualThreads(config);
+        }
+
+        // Templates intégrés compilés au démarrage : erreurs visibles avant la première requête
+        if (config.getBoolean("framework.template.precompile", true)) {
+            responseRenderer.getTemplateEngine(context).precompile();
+        }
+
+        // Point de readiness seulement avec le warm-up (chemin vide : désactivé),
+        // pour ne pas masquer une route de l'application à cette URL
+        warmup = (Warmup) context.getAttribute(Warmup.CONTEXT_ATTRIBUTE);
+        readinessPath = warmup != null
+                ? config.getString("framework.warmup.readiness.path", "/_ready")
+                : "";
+
+        // Requêtes fictives du warm-up (si activé) lancées une fois la servlet prête
+        if (warmup != null) {
+            warmup.start(this, context);
+        }
+    }
+
+    /**
+     * Mode threads virtuels (framework.execution=virtual, JDK 21+) : binding,
+     * appel du contrôleur et rendu s'exécutent dans un thread virtuel par
+     * requête, le thread du conteneur est rendu dès le contrôle de sécurité.
+     * Les épinglages (synchronized...) au-delà de
+     * framework.virtual.pinning.threshold ms sont signalés.
+     */
+    private void startVirtualThreads(FrameworkConfig config) {
+        virtualThreads = VirtualThreads.newExecutor("framework-vt-");
+        if (virtualThreads == null) {
+            System.err.println("[FrontServlet] Threads virtuels indisponibles (JDK 21 requis) :"
+                    + " exécution sur les threads du conteneur");
+            return;
+        }
+        System.out.println("[FrontServlet] Exécution des contrôleurs sur threads virtuels");
+
+        if (config.getBoolean("framework.virtual.pinning", true)) {
+            PinningMonitor monitor = new PinningMonitor(config.getLong("framework.virtual.pinning.threshold", 20));
+            if (monitor.start()) {
+                pinningMonitor = monitor;
+                metrics.setPinningMonitor(monitor);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        responseRenderer.close();
+        if (virtualThreads != null) {
+            virtualThreads.shutdown();
+        }
+        if (pinningMonitor != null) {
+            pinningMonitor.close();
+        }
     }
 
     @Override
     protected void service(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
 
-        StringBuilder debugOutput = DEBUG ? new StringBuilder()
-                .append("\n========== DEBUG FrontServlet ==========\n")
-                .append("HTTP Method : ").append(req.getMethod()).append("\n")
-                .append("URL         : ").append(req.getRequestURI()).append("\n") : null;
+        // Trace uniquement pour les requêtes sélectionnées (en-tête ou échantillonnage)
+        RequestTrace trace = tracer.start(req);
+        StringBuilder debug = null;
+        if (trace != null) {
+            debug = trace.getBuffer();
+            resp.setHeader(Tracer.TRACE_ID_HEADER, trace.getId());
+        }
+
+        // Les requêtes fictives du warm-up ne sont pas comptées
+        RequestTimer timer = req.getAttribute(SyntheticExchange.WARMUP_ATTRIBUTE) == null
+                ? metrics.startTimer()
+                : null;
 
+        boolean async = false;
         try {
-            processRequest(req, resp, debugOutput);
+            async = processRequest(req, resp, trace, timer);
         } catch (Exception e) {
-            handleException(resp, e, null, debugOutput);
+            handleException(resp, e, null, debug);
+        } finally {
+            // Requête asynchrone : métriques et trace clôturées à la complétion
+            if (!async) {
+                finish(resp, trace, timer);
+            }
         }
     }
 
-    private void processRequest(HttpServletRequest req, HttpServletResponse resp, StringBuilder debug)
-            throws Exception {
+    private void finish(HttpServletResponse resp, RequestTrace trace, RequestTimer timer) {
+        if (timer != null) {
+            timer.finish(metrics, resp.getStatus());
+        }
+        if (trace != null) {
+            tracer.finish(trace, resp.getStatus());
+        }
+    }
+
+    /**
+     * @return true si la réponse sera complétée de manière asynchrone
+     */
+    private boolean processRequest(HttpServletRequest req, HttpServletResponse resp, RequestTrace trace,
+            RequestTimer timer) throws Exception {
+
+        StringBuilder debug = trace != null ? trace.getBuffer() : null;
 
         String path = req.getRequestURI().substring(req.getContextPath().length());
+
+        if (!readinessPath.isEmpty() && readinessPath.equals(path)) {
+            responseRenderer.readiness(resp, warmup.isReady());
+            return false;
+        }
+        if (tracer.isTracePath(path)) {
+            tracer.checkAccess(req);
+            responseRenderer.traces(resp, tracer.getBuffer(), req.getParameter("id"));
+            return false;
+        }
+        if (metrics.isMetricsPath(path)) {
+            responseRenderer.metrics(resp, metrics);
+            return false;
+        }
+
+        // Ressources statiques (framework.static.prefix) : un fichier existant
+        // est servi directement, sinon la requête continue vers les routes
+        Path staticFile = staticResources != null ? staticResources.find(req, path) : null;
+        if (staticFile != null) {
+            serveStatic(req, resp, staticFile, debug);
+            return false;
+        }
+
         RouteMatch routeMatch = routes.findByUrl(path, req.getMethod());
+        if (timer != null && routeMatch != null && routeMatch.getRoute() != null) {
+            timer.route(routeMatch.getRoute().getMetrics());
+            timer.phase(Phase.ROUTING);
+        }
 
         if (routeMatch == null) {
-            responseRenderer.notFound(resp, debug);
-            return;
+            Set<String> allowed = routes.getAllowedMethods(path);
+            if (allowed.isEmpty()) {
+                responseRenderer.notFound(resp, debug);
+            } else {
+                responseRenderer.methodNotAllowed(resp, allowed, debug);
+            }
+            return false;
         }
 
         if (debug != null) {
@@ -76,30 +255,367 @@ public class FrontServlet extends HttpServlet {
                     .append(".").append(routeMatch.getMethodInvoker().getMethod().getName()).append("\n");
         }
 
-        Object[] args = argumentResolver.resolve(routeMatch, req, debug);
+        // Compression de la réponse (Accept-Encoding, @Compression) : la suite
+        // du traitement écrit dans la réponse compressante, terminée ici en
+        // synchrone ou par AsyncExchange
+        CompressingResponse compressing = compressor.wrap(req, resp,
+                routeMatch.getMethodInvoker().getCompressionLevel());
+        if (compressing == null) {
+            return processRoute(req, resp, routeMatch, trace, timer);
+        }
+        boolean async;
+        try {
+            async = processRoute(req, compressing, routeMatch, trace, timer);
+        } catch (Exception e) {
+            // Le message d'erreur part non compressé, sur la réponse réelle
+            compressing.discard();
+            throw e;
+        }
+        if (!async) {
+            compressing.finish();
+        }
+        return async;
+    }
+
+    private void serveStatic(HttpServletRequest req, HttpServletResponse resp, Path file, StringBuilder debug)
+            throws IOException {
+        CompressingResponse compressing = compressor.wrap(req, resp, -1);
+        if (compressing == null) {
+            staticResources.serve(req, resp, file, getServletContext(), debug);
+            return;
+        }
+        try {
+            staticResources.serve(req, compressing, file, getServletContext(), debug);
+        } catch (IOException e) {
+            compressing.discard();
+            throw e;
+        }
+        compressing.finish();
+    }
+
+    /**
+     * Sécurité, cache, binding, appel et rendu d'une route trouvée
+     */
+    private boolean processRoute(HttpServletRequest req, HttpServletResponse resp, RouteMatch routeMatch,
+            RequestTrace trace, RequestTimer timer) throws Exception {
+
+        StringBuilder debug = trace != null ? trace.getBuffer() : null;
+
+        // Vérifier les autorisations (@Authorized, @Role) avant le binding.
+        // Les routes publiques ne recherchent même pas la session.
+        MethodInvoker invoker = routeMatch.getMethodInvoker();
+        SecurityPolicy policy = invoker.getSecurityPolicy();
+        BindingContext bindingContext = new BindingContext(req, routeMatch.getPathParams(), debug);
+        if (!policy.isPublic()) {
+            CustomSession session = SessionResolver.find(req);
+            bindingContext.setSession(session);
+            securityChecker.checkAuthorization(policy, session);
+
+            if (debug != null) {
+                debug.append("Sécurité     : OK (").append(policy).append(")\n");
+            }
+        }
+        if (timer != null) {
+            timer.phase(Phase.SECURITY);
+        }
+
+        // Cache des réponses (@Cacheable) : une réponse conservée évite binding,
+        // appel et rendu ; sinon le rendu passe par une CachingResponse
+        CachingResponse caching = null;
+        CachePolicy cachePolicy = invoker.getCachePolicy();
+        if (cachePolicy != null && isCacheable(req)) {
+            caching = lookupCache(cachePolicy, routeMatch, bindingContext, req, resp, debug);
+            if (caching == null) {
+                if (timer != null) {
+                    timer.phase(Phase.RENDERING);
+                }
+                return false;
+            }
+        }
+
+        // Mode threads virtuels : la suite de la requête quitte le thread du
+        // conteneur (sauf réponse à mettre en cache, calculée sur place)
+        if (virtualThreads != null && caching == null && req.isAsyncSupported()) {
+            AsyncExchange exchange = new AsyncExchange(req, resp, invoker.getMethod(), trace, timer);
+            try {
+                exchange.task = virtualThreads.submit(() -> invokeAsync(exchange, routeMatch, bindingContext));
+            } catch (RejectedExecutionException e) {
+                exchange.complete(null, e);
+            }
+            return true;
+        }
 
-        // Stocker la session dans la requête pour le ResponseRenderer
+        try {
+            Object[] args = argumentResolver.resolve(routeMatch, bindingContext);
+            if (timer != null) {
+                timer.phase(Phase.BINDING);
+            }
+
+            Object result = invoker.execute(args);
+
+            if (result instanceof CompletionStage) {
+                CompletionStage<?> stage = (CompletionStage<?>) result;
+                if (req.isAsyncSupported()) {
+                    // Rendu différé sur la réponse réelle : pas de mise en cache
+                    if (caching != null) {
+                        caching.abandon();
+                    }
+                    AsyncExchange exchange = new AsyncExchange(req, resp, invoker.getMethod(), trace, timer);
+                    exchange.await(stage, exchange.async::start);
+                    return true;
+                }
+                // Servlet non déclarée asynchrone (ou requête du warm-up) : attente
+                // bloquante du résultat, avec le même délai
+                result = await(stage);
+            }
+            if (timer != null) {
+                timer.phase(Phase.INVOCATION);
+            }
+
+            responseRenderer.render(caching != null ? caching : resp, result, req, getServletContext(),
+                    routeMatch.getMethodInvoker().getMethod(), debug);
+            if (caching != null) {
+                caching.complete();
+            }
+            if (timer != null) {
+                timer.phase(Phase.RENDERING);
+            }
+            return false;
+        } catch (Exception e) {
+            if (caching != null) {
+                caching.abandon();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isCacheable(HttpServletRequest req) {
+        return "GET".equals(req.getMethod()) && req.getAttribute(SyntheticExchange.WARMUP_ATTRIBUTE) == null;
+    }
+
+    /**
+     * Sert la requête depuis le cache si possible, sinon renvoie la réponse
+     * qui conservera le résultat
+     */
+    private CachingResponse lookupCache(CachePolicy cachePolicy, RouteMatch routeMatch,
+            BindingContext bindingContext, HttpServletRequest req, HttpServletResponse resp, StringBuilder debug)
+            throws Exception {
         CustomSession session = null;
-        for (Object arg : args) {
-            if (arg instanceof CustomSession) {
-                session = (CustomSession) arg;
-                req.setAttribute("__current_session", arg);
-                break;
+        if (cachePolicy.isPerRole()) {
+            if (!bindingContext.isSessionResolved()) {
+                bindingContext.setSession(SessionResolver.find(req));
             }
+            session = bindingContext.getSession();
         }
 
-        // Vérifier les autorisations (@Authorized, @Role)
-        Method method = routeMatch.getMethodInvoker().getMethod();
-        securityChecker.checkAuthorization(method, session);
+        RegisteredRoute route = routeMatch.getRoute();
+        String prefix = route != null
+                ? route.getHttpMethod() + " " + route.getUrlPattern()
+                : req.getMethod() + " " + routeMatch.getMethodInvoker().getMethod().getName();
+        String key = cachePolicy.key(prefix, routeMatch.getPathParams(), req, session);
 
+        CachingResponse caching = responseCache.lookup(key, cachePolicy, req, resp);
         if (debug != null) {
-            debug.append("Sécurité     : OK\n");
+            debug.append("Cache         : ").append(caching == null ? resp.getHeader("X-Cache") : "MISS")
+                    .append(" [").append(key).append("]\n");
+        }
+        return caching;
+    }
+
+    /**
+     * Binding, appel et rendu dans un thread virtuel. Un résultat
+     * CompletionStage est rendu à sa complétion, dans un autre thread virtuel.
+     */
+    private void invokeAsync(AsyncExchange exchange, RouteMatch routeMatch, BindingContext bindingContext) {
+        try {
+            Object[] args = argumentResolver.resolve(routeMatch, bindingContext);
+            if (exchange.timer != null) {
+                exchange.timer.phase(Phase.BINDING);
+            }
+
+            Object result = routeMatch.getMethodInvoker().execute(args);
+            if (result instanceof CompletionStage) {
+                exchange.await((CompletionStage<?>) result, virtualThreads);
+            } else {
+                exchange.complete(result, null);
+            }
+        } catch (Exception e) {
+            exchange.complete(null, e);
+        }
+    }
+
+    /**
+     * Requête passée en traitement asynchrone : le thread du conteneur est
+     * libéré pendant l'attente d'un CompletionStage (ou pendant tout l'appel en
+     * mode threads virtuels).
+     *
+     * La réponse est produite une seule fois, par le premier de : la
+     * complétion du résultat, l'expiration de framework.async.timeout (503),
+     * une erreur de connexion. Les suivants sont ignorés.
+     *
+     * Le contrôleur est rendu à son scope dès le retour de la méthode : le
+     * traitement asynchrone ne doit pas dépendre de l'instance (@Pooled,
+     * @RequestScoped).
+     */
+    private final class AsyncExchange implements AsyncListener {
+        private final HttpServletRequest req;
+        private final HttpServletResponse resp;
+        private final CompressingResponse compressing;
+        private final AsyncContext async;
+        private final Method method;
+        private final RequestTrace trace;
+        private final RequestTimer timer;
+        private final StringBuilder debug;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile CompletionStage<?> stage;
+        private volatile Future<?> task;
+
+        AsyncExchange(HttpServletRequest req, HttpServletResponse resp, Method method, RequestTrace trace,
+                RequestTimer timer) {
+            this.req = req;
+            this.resp = resp;
+            this.compressing = resp instanceof CompressingResponse ? (CompressingResponse) resp : null;
+            this.method = method;
+            this.trace = trace;
+            this.timer = timer;
+            this.debug = trace != null ? trace.getBuffer() : null;
+            this.async = req.startAsync(req, resp);
+            async.setTimeout(asyncTimeout);
+            async.addListener(this);
+
+            if (debug != null) {
+                debug.append("Asynchrone    : délai ").append(asyncTimeout).append(" ms")
+                        .append(virtualThreads != null ? ", thread virtuel" : "").append("\n");
+            }
+        }
+
+        /**
+         * Rend le résultat à sa complétion, dans un thread de executor
+         */
+        void await(CompletionStage<?> stage, Executor executor) {
+            this.stage = stage;
+            stage.whenComplete((value, error) -> executor.execute(() -> complete(value, error)));
         }
 
-        Object result = routeMatch.getMethodInvoker().execute(args);
+        /**
+         * Rend la valeur (ou l'erreur) dans le thread courant
+         */
+        void complete(Object value, Throwable error) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            if (timer != null) {
+                timer.phase(Phase.INVOCATION);
+            }
+            boolean dispatched = false;
+            try {
+                if (error != null) {
+                    throw unwrap(error);
+                }
+                dispatched = responseRenderer.renderAsync(resp, value, req, async, getServletContext(),
+                        method, debug);
+                if (timer != null) {
+                    timer.phase(Phase.RENDERING);
+                }
+            } catch (Exception e) {
+                handleException(resp, e, method, debug);
+            } finally {
+                if (!dispatched) {
+                    finishCompression();
+                }
+                finish(resp, trace, timer);
+                if (!dispatched) {
+                    async.complete();
+                }
+            }
+        }
+
+        /**
+         * Termine le flux compressé (sans effet s'il l'est déjà)
+         */
+        private void finishCompression() {
+            if (compressing != null) {
+                try {
+                    compressing.finish();
+                } catch (IOException e) {
+                    System.err.println("[FrontServlet] Fin de la réponse compressée impossible : " + e.getMessage());
+                }
+            }
+        }
+
+        private void abort() {
+            if (stage != null) {
+                cancel(stage);
+            }
+            if (task != null) {
+                task.cancel(true);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            if (done.compareAndSet(false, true)) {
+                abort();
+                handleException(resp, new AsyncTimeoutException(asyncTimeout), method, debug);
+                finishCompression();
+                finish(resp, trace, timer);
+                async.complete();
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // Connexion interrompue : plus rien ne peut être écrit
+            if (done.compareAndSet(false, true)) {
+                abort();
+                if (compressing != null) {
+                    compressing.discard();
+                }
+                finish(resp, trace, timer);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Vue rendue par AsyncContext.dispatch : le flux est terminé ici
+            finishCompression();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private Object await(CompletionStage<?> stage) throws Exception {
+        try {
+            return stage.toCompletableFuture().get(asyncTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancel(stage);
+            throw new AsyncTimeoutException(asyncTimeout);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static void cancel(CompletionStage<?> stage) {
+        try {
+            stage.toCompletableFuture().cancel(true);
+        } catch (UnsupportedOperationException e) {
+            // CompletionStage non convertible : il s'achèvera sans effet
+        }
+    }
 
-        responseRenderer.render(resp, result, req, getServletContext(),
-                routeMatch.getMethodInvoker().getMethod(), debug);
+    /**
+     * Exception d'origine d'un résultat asynchrone en échec, pour que
+     * handleException lui applique le même statut qu'en synchrone
+     */
+    private static Exception unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof Exception ? (Exception) cause : new ServletException(cause);
     }
 
     private void handleException(HttpServletResponse resp, Exception e, Method method, StringBuilder debug) {
@@ -114,13 +630,32 @@ public class FrontServlet extends HttpServlet {
             } else if (e instanceof ForbiddenException) {
                 statusCode = 403;
                 errorType = "ACCÈS INTERDIT";
+            } else if (e instanceof PoolExhaustedException) {
+                statusCode = 503;
+                errorType = "SERVICE INDISPONIBLE";
+            } else if (e instanceof BadRequestException) {
+                statusCode = 400;
+                errorType = "REQUÊTE INVALIDE";
+            } else if (e instanceof PayloadTooLargeException) {
+                statusCode = 413;
+                errorType = "CORPS TROP VOLUMINEUX";
+            } else if (e instanceof UnsupportedMediaTypeException) {
+                statusCode = 415;
+                errorType = "TYPE DE CONTENU NON SUPPORTÉ";
+            } else if (e instanceof BulkheadFullException) {
+                statusCode = 503;
+                errorType = "SERVICE SATURÉ";
+            } else if (e instanceof AsyncTimeoutException) {
+                statusCode = 503;
+                errorType = "DÉLAI DÉPASSÉ";
             }
             
             resp.setStatus(statusCode);
             resp.setContentType("text/plain;charset=UTF-8");
+            if (debug != null) {
+                debug.append("Erreur ").append(statusCode).append(" : ").append(e).append("\n");
+            }
             var out = resp.getWriter();
-            if (debug != null)
-                out.println(debug);
             out.println("\n========== " + errorType + " (" + statusCode + ") ==========");
             out.println(e.getMessage());
             if (statusCode == 500) {
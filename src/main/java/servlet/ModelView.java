@@ -8,6 +8,10 @@ public class ModelView {
     String view;
     Map<String, Object> attributes;
 
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
     public void setAttributes(Map<String, Object> attributes) {
         this.attributes = attributes;
     }
@@ -0,0 +1,30 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limite le nombre d'appels simultanés d'une route (sur la méthode) ou de
+ * toutes les routes d'un contrôleur (sur la classe, limite partagée) : un
+ * point d'accès lent ne peut pas occuper tous les threads.
+ *
+ * L'annotation de la méthode remplace celle de la classe. Pour un résultat
+ * asynchrone (CompletionStage), la place est rendue à sa complétion.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface Bulkhead {
+    /**
+     * Nombre maximum d'appels simultanés
+     */
+    int value();
+
+    /**
+     * Temps d'attente maximum (ms) d'une place libre avant d'échouer (503).
+     * 0 : refus immédiat, adapté aux threads du conteneur ; une attente plus
+     * longue ne coûte presque rien en mode threads virtuels.
+     */
+    long timeout() default 0;
+}
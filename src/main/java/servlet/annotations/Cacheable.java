@@ -0,0 +1,41 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * La réponse (statut 200) d'une route GET est conservée sérialisée, en-têtes
+ * compris, et renvoyée telle quelle pendant ttl secondes : ni binding, ni
+ * appel du contrôleur, ni sérialisation.
+ *
+ * La clé combine la route, les paramètres de chemin, les paramètres de
+ * requête retenus et, si perRole, le rôle de l'utilisateur en session. Une
+ * route qui dépend d'autre chose (utilisateur, en-têtes...) ne doit pas être
+ * mise en cache. Les cookies (session) ne sont jamais conservés.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cacheable {
+    /**
+     * Durée de validité (secondes)
+     */
+    long ttl();
+
+    /**
+     * Durée supplémentaire (secondes) pendant laquelle la réponse expirée est
+     * encore servie, le temps qu'une seule requête la recalcule
+     */
+    long staleWhileRevalidate() default 0;
+
+    /**
+     * Paramètres de requête inclus dans la clé ("*" : tous, {} : aucun)
+     */
+    String[] params() default { "*" };
+
+    /**
+     * Une entrée par rôle de l'utilisateur (variable de rôle de la session)
+     */
+    boolean perRole() default false;
+}
@@ -0,0 +1,30 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Compression des réponses d'une route (sur la méthode) ou de toutes les
+ * routes d'un contrôleur (sur la classe) : désactivation, ou niveau propre.
+ *
+ * L'annotation de la méthode remplace celle de la classe. Sans annotation, la
+ * configuration globale s'applique (framework.compression,
+ * framework.compression.level).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface Compression {
+    /**
+     * false : réponses jamais compressées (contenu déjà compressé, données
+     * sensibles mêlant secret et saisie de l'utilisateur...)
+     */
+    boolean enabled() default true;
+
+    /**
+     * Niveau de compression (1 : rapide ... 9 : compact), -1 : niveau de
+     * framework.compression.level
+     */
+    int level() default -1;
+}
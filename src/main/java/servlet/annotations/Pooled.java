@@ -0,0 +1,25 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Les instances du contrôleur sont prises dans un pool borné : une instance
+ * n'est utilisée que par une requête à la fois, ce qui convient aux
+ * contrôleurs non thread-safe dont la construction est coûteuse.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Pooled {
+    /**
+     * Nombre maximum d'instances
+     */
+    int size() default 16;
+
+    /**
+     * Temps d'attente maximum (ms) d'une instance libre avant d'échouer (503)
+     */
+    long timeout() default 1000;
+}
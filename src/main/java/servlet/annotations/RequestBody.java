@@ -0,0 +1,33 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Le paramètre est désérialisé depuis le corps JSON de la requête
+ * (Content-Type application/json), lu directement dans le flux d'entrée.
+ *
+ * Utilisation:
+ * @PostMapping("/api/orders")
+ * @Json
+ * public Order create(@RequestBody Order order) { ... }
+ *
+ * Les types génériques sont respectés (List<Item>, Map<String, Item>...).
+ * Le corps ne peut être lu qu'une fois : un seul @RequestBody par méthode.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface RequestBody {
+    /**
+     * Corps obligatoire : un corps vide donne une erreur 400 (sinon null)
+     */
+    boolean required() default true;
+
+    /**
+     * Taille maximale du corps en octets (413 au-delà). -1 : valeur de
+     * framework.json.body.max (1 Mo par défaut)
+     */
+    long maxSize() default -1;
+}
@@ -0,0 +1,15 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Une nouvelle instance du contrôleur est créée pour chaque requête
+ * (comportement par défaut si aucune portée n'est déclarée).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface RequestScoped {
+}
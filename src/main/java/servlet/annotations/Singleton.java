@@ -0,0 +1,15 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Une seule instance du contrôleur est créée au démarrage et partagée par
+ * toutes les requêtes. Le contrôleur doit donc être sans état (ou thread-safe).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Singleton {
+}
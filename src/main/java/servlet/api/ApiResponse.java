@@ -1,5 +1,6 @@
 package servlet.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -8,6 +9,8 @@ public class ApiResponse<T> {
     private Integer code;  // Code HTTP (200, 404, 500...)
     private T data;
     private ErrorInfo error;
+    @JsonIgnore
+    private String version; // Jeton de version des données (ETag), non sérialisé
 
     public ApiResponse() {}
 
@@ -29,6 +32,13 @@ public class ApiResponse<T> {
         return res;
     }
 
+    // Jeton de version : si le client possède déjà cette version (If-None-Match),
+    // la réponse est un 304 et les données ne sont pas sérialisées
+    public ApiResponse<T> version(Object version) {
+        this.version = version != null ? String.valueOf(version) : null;
+        return this;
+    }
+
     // Getters et Setters
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
@@ -41,4 +51,9 @@ public class ApiResponse<T> {
     
     public ErrorInfo getError() { return error; }
     public void setError(ErrorInfo error) { this.error = error; }
+
+    @JsonIgnore
+    public String getVersion() { return version; }
+    @JsonIgnore
+    public void setVersion(String version) { this.version = version; }
 }
\ No newline at end of file
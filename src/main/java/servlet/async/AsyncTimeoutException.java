@@ -0,0 +1,16 @@
+package servlet.async;
+
+/**
+ * Exception levée quand le résultat asynchrone d'un contrôleur
+ * (CompletionStage) n'est pas disponible dans le délai imparti (HTTP 503)
+ */
+public class AsyncTimeoutException extends RuntimeException {
+
+    public AsyncTimeoutException(long timeoutMillis) {
+        super("Résultat asynchrone non disponible après " + timeoutMillis + " ms");
+    }
+
+    public int getStatusCode() {
+        return 503;
+    }
+}
@@ -0,0 +1,16 @@
+package servlet.async;
+
+/**
+ * Exception levée quand la limite @Bulkhead d'une route est atteinte et
+ * qu'aucune place ne s'est libérée dans le délai imparti (HTTP 503)
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String name, int limit) {
+        super("Limite d'appels simultanés atteinte pour " + name + " (" + limit + ")");
+    }
+
+    public int getStatusCode() {
+        return 503;
+    }
+}
@@ -0,0 +1,105 @@
+package servlet.async;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import servlet.annotations.Bulkhead;
+
+/**
+ * Limite d'appels simultanés déclarée par @Bulkhead. Une limite de classe est
+ * partagée par toutes les méthodes du contrôleur ; une limite de méthode est
+ * propre à la route.
+ *
+ * Les limites créées sont conservées pour l'export des métriques.
+ */
+public class BulkheadLimiter {
+
+    private static final Map<Object, BulkheadLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int limit;
+    private final long timeoutMillis;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    BulkheadLimiter(String name, int limit, long timeoutMillis) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("@Bulkhead(value) doit être > 0 : " + name);
+        }
+        this.name = name;
+        this.limit = limit;
+        this.timeoutMillis = timeoutMillis;
+        this.permits = new Semaphore(limit);
+    }
+
+    /**
+     * Limite applicable à la méthode, ou null si ni la méthode ni sa classe ne
+     * sont annotées
+     */
+    public static BulkheadLimiter forMethod(Method method) {
+        Bulkhead onMethod = method.getAnnotation(Bulkhead.class);
+        if (onMethod != null) {
+            return LIMITERS.computeIfAbsent(method, m -> new BulkheadLimiter(
+                    method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                    onMethod.value(), onMethod.timeout()));
+        }
+        Class<?> controllerClass = method.getDeclaringClass();
+        Bulkhead onClass = controllerClass.getAnnotation(Bulkhead.class);
+        if (onClass != null) {
+            return LIMITERS.computeIfAbsent(controllerClass, c -> new BulkheadLimiter(
+                    controllerClass.getSimpleName(), onClass.value(), onClass.timeout()));
+        }
+        return null;
+    }
+
+    public static List<BulkheadLimiter> all() {
+        List<BulkheadLimiter> all = new ArrayList<>(LIMITERS.values());
+        all.sort(Comparator.comparing(BulkheadLimiter::getName));
+        return all;
+    }
+
+    /**
+     * Prend une place, en attendant au plus timeout ms
+     */
+    public void acquire() throws InterruptedException {
+        boolean acquired = timeoutMillis > 0
+                ? permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)
+                : permits.tryAcquire();
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException(name, limit);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInUse() {
+        return limit - permits.availablePermits();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkhead{" + name + ", " + getInUse() + "/" + limit + ", rejetés=" + getRejected() + "}";
+    }
+}
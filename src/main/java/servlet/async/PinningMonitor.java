@@ -0,0 +1,112 @@
+package servlet.async;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Signale les threads virtuels épinglés à leur thread porteur (bloc
+ * synchronized, méthode native...) au-delà d'un seuil : l'événement JFR
+ * jdk.VirtualThreadPinned est suivi en continu dans le processus.
+ *
+ * Chaque épinglage est journalisé avec la première frame applicative de la
+ * pile et compté par emplacement (exporté avec les métriques).
+ */
+public class PinningMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder pinnedMicros = new LongAdder();
+    private final Map<String, LongAdder> locations = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public PinningMonitor(long thresholdMillis) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+    }
+
+    /**
+     * Démarre le suivi dans un thread daemon. Renvoie false si JFR n'est pas
+     * disponible dans ce runtime.
+     */
+    public synchronized boolean start() {
+        if (stream != null) {
+            return true;
+        }
+        try {
+            RecordingStream rs = new RecordingStream();
+            rs.enable(EVENT).withThreshold(threshold).withStackTrace();
+            rs.onEvent(EVENT, this::onPinned);
+            rs.startAsync();
+            stream = rs;
+            return true;
+        } catch (RuntimeException | LinkageError e) {
+            System.err.println("[PinningMonitor] Suivi JFR indisponible : " + e);
+            return false;
+        }
+    }
+
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String location = location(event.getStackTrace());
+        pinned.increment();
+        pinnedMicros.add(event.getDuration().toNanos() / 1000);
+        locations.computeIfAbsent(location, l -> new LongAdder()).increment();
+
+        System.err.println("[PinningMonitor] Thread virtuel épinglé " + event.getDuration().toMillis()
+                + " ms dans " + location);
+    }
+
+    /**
+     * Première frame hors JDK (le code du contrôleur le plus souvent)
+     */
+    private static String location(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "inconnu";
+        }
+        RecordedFrame first = null;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            if (first == null) {
+                first = frame;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return format(frame);
+            }
+        }
+        return first != null ? format(first) : "inconnu";
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    public long getPinnedCount() {
+        return pinned.sum();
+    }
+
+    public long getPinnedMicros() {
+        return pinnedMicros.sum();
+    }
+
+    public Map<String, LongAdder> getLocations() {
+        return locations;
+    }
+}
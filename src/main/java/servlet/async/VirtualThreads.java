@@ -0,0 +1,46 @@
+package servlet.async;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Accès aux threads virtuels (JDK 21+) sans imposer ce JDK à la compilation :
+ * les API sont recherchées à l'exécution.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Executor lançant chaque tâche dans un nouveau thread virtuel nommé
+     * prefix + numéro, ou null si le JDK ne les propose pas
+     */
+    public static ExecutorService newExecutor(String prefix) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+
+            Object builder = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(builderClass))
+                    .invoke();
+            MethodHandle name = lookup.findVirtual(builderClass, "name",
+                    MethodType.methodType(builderClass, String.class, long.class));
+            builder = name.invoke(builder, prefix, 0L);
+            MethodHandle factory = lookup.findVirtual(builderClass, "factory",
+                    MethodType.methodType(ThreadFactory.class));
+            ThreadFactory threads = (ThreadFactory) factory.invoke(builder);
+
+            MethodHandle perTask = lookup.findStatic(Executors.class, "newThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+            return (ExecutorService) perTask.invoke(threads);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Création de l'executor de threads virtuels impossible", t);
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package servlet.binding;
 
-import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.Part;
+import servlet.annotations.RequestBody;
 import servlet.annotations.RequestParam;
 import servlet.annotations.Session;
 import servlet.session.CustomSession;
 import servlet.session.SessionManager;
+import servlet.session.SessionResolver;
+import servlet.trace.Tracer;
+import servlet.utils.MethodInvoker;
 import servlet.utils.RouteMatch;
 import servlet.utils.Upload;
 
@@ -16,156 +19,226 @@ import java.util.stream.Collectors;
 
 public class ArgumentResolver {
 
-    private static final boolean DEBUG = true;
-    private static final String SESSION_COOKIE_NAME = "FRAMEWORK_SESSION_ID"; // Changé pour éviter conflit avec Tomcat
-    private final TypeConverter converter = new TypeConverter();
-
     public Object[] resolve(RouteMatch routeMatch, HttpServletRequest req, StringBuilder debug) throws Exception {
-        Method method = routeMatch.getMethodInvoker().getMethod();
-        Parameter[] parameters = method.getParameters();
-        Object[] args = new Object[parameters.length];
+        return resolve(routeMatch, new BindingContext(req, routeMatch.getPathParams(), debug));
+    }
 
-        Map<String, String> pathParams = routeMatch.getPathParams();
-        Map<String, String[]> queryParams = req.getParameterMap();
+    /**
+     * Exécute le plan de la route avec un contexte préparé par l'appelant
+     * (par exemple avec la session déjà résolue)
+     */
+    public Object[] resolve(RouteMatch routeMatch, BindingContext ctx) throws Exception {
+        MethodInvoker invoker = routeMatch.getMethodInvoker();
+        BindingPlan plan = invoker.getBindingPlan();
+        if (plan == null) {
+            // Route non préparée par RouteInitializer : compiler à la première requête
+            plan = compile(invoker.getMethod(), ctx.getPathParams().getNames(), invoker.getParameterNames());
+            invoker.setBindingPlan(plan);
+        }
+        return plan.bind(ctx);
+    }
+
+    // ===================== COMPILATION DU PLAN =====================
 
-        boolean isMultipart = req.getContentType() != null && 
-                              req.getContentType().toLowerCase().startsWith("multipart/form-data");
+    /**
+     * Analyse une fois les paramètres de la méthode (annotations, types
+     * génériques, objets custom) et retourne le binder spécialisé de chacun.
+     *
+     * @param pathParamNames les noms des {param} du pattern de la route, dans l'ordre
+     */
+    public BindingPlan compile(Method method, String[] pathParamNames) {
+        return compile(method, pathParamNames, null);
+    }
 
+    /**
+     * @param declaredNames noms des paramètres connus par l'index des routes
+     *                      (utilisés si la classe n'est pas compilée avec -parameters), ou null
+     */
+    public BindingPlan compile(Method method, String[] pathParamNames, String[] declaredNames) {
+        Parameter[] parameters = method.getParameters();
+        ParameterBinder[] binders = new ParameterBinder[parameters.length];
         for (int i = 0; i < parameters.length; i++) {
-            Parameter param = parameters[i];
-            String paramName = getParameterName(param);
-            Class<?> paramType = param.getType();
-
-            // ============ GESTION @Session ============
-            if (param.isAnnotationPresent(Session.class) && paramType.equals(CustomSession.class)) {
-                Session sessionAnnotation = param.getAnnotation(Session.class);
-                args[i] = resolveSession(req, sessionAnnotation.create(), debug);
-                continue;
-            }
+            String declaredName = declaredNames != null && i < declaredNames.length ? declaredNames[i] : null;
+            binders[i] = compileParameter(i, parameters[i], declaredName, pathParamNames);
+        }
+        return new BindingPlan(binders);
+    }
 
-            // ============ GESTION UPLOAD ============
-            if (isMultipart && Map.class.isAssignableFrom(paramType)) {
-                Type genericType = param.getParameterizedType();
-                if (genericType instanceof ParameterizedType) {
-                    Type[] typeArgs = ((ParameterizedType) genericType).getActualTypeArguments();
-                    if (typeArgs.length == 2 && 
-                        typeArgs[0].equals(String.class) && 
-                        typeArgs[1] instanceof ParameterizedType) {
-                        ParameterizedType listType = (ParameterizedType) typeArgs[1];
-                        if (listType.getRawType().equals(List.class) && 
-                            listType.getActualTypeArguments()[0].equals(Upload.class)) {
-                            args[i] = collectAllUploads(req, debug);
-                            continue;
-                        }
-                    }
-                }
-                args[i] = queryParams.entrySet().stream()
-                        .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue()[0]));
-                continue;
-            }
+    private ParameterBinder compileParameter(int index, Parameter param, String declaredName,
+            String[] pathParamNames) {
+        String paramName = getParameterName(param, declaredName);
+        Class<?> paramType = param.getType();
 
-            if (isMultipart && List.class.isAssignableFrom(paramType)) {
-                Type genericType = param.getParameterizedType();
-                if (genericType instanceof ParameterizedType) {
-                    Type[] typeArgs = ((ParameterizedType) genericType).getActualTypeArguments();
-                    if (typeArgs.length == 1 && typeArgs[0].equals(Upload.class)) {
-                        args[i] = getUploadsByName(req, paramName, debug);
-                        continue;
-                    }
-                }
-            }
+        // ============ GESTION @Session ============
+        if (param.isAnnotationPresent(Session.class) && paramType.equals(CustomSession.class)) {
+            boolean create = param.getAnnotation(Session.class).create();
+            return ctx -> resolveSession(ctx, create);
+        }
 
-            if (isMultipart && Upload.class.equals(paramType)) {
-                args[i] = getSingleUpload(req, paramName, debug);
-                continue;
-            }
+        // ============ GESTION @RequestBody (JSON) ============
+        if (param.isAnnotationPresent(RequestBody.class)) {
+            return new JsonBodyBinder(index, paramName, param);
+        }
 
-            // ============ GESTION MAP ============
-            if (Map.class.isAssignableFrom(paramType)) {
-                args[i] = queryParams.entrySet().stream()
-                        .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue()[0]));
-                continue;
-            }
+        // Binder utilisé quand la requête n'est pas multipart
+        ParameterBinder standard = compileStandard(index, paramName, paramType, pathParamNames);
 
-            // ============ GESTION OBJETS CUSTOM ============
-            if (isCustomObject(paramType)) {
-                if (paramType.isArray()) {
-                    args[i] = bindObjectArray(paramType, paramName, queryParams, debug);
-                } else {
-                    args[i] = bindObject(paramType, paramName, queryParams, debug);
-                }
-                continue;
+        // ============ GESTION UPLOAD ============
+        if (Map.class.isAssignableFrom(paramType) && isUploadMap(param.getParameterizedType())) {
+            return ctx -> ctx.isMultipart()
+                    ? collectAllUploads(ctx.getRequest(), ctx.getDebug())
+                    : standard.bind(ctx);
+        }
+
+        if (List.class.isAssignableFrom(paramType) && isUploadList(param.getParameterizedType())) {
+            return ctx -> ctx.isMultipart()
+                    ? getUploadsByName(ctx.getRequest(), paramName, ctx.getDebug())
+                    : standard.bind(ctx);
+        }
+
+        if (Upload.class.equals(paramType)) {
+            return ctx -> ctx.isMultipart()
+                    ? getSingleUpload(ctx.getRequest(), paramName, ctx.getDebug())
+                    : standard.bind(ctx);
+        }
+
+        return standard;
+    }
+
+    private ParameterBinder compileStandard(int index, String paramName, Class<?> paramType,
+            String[] pathParamNames) {
+        // ============ GESTION MAP ============
+        if (Map.class.isAssignableFrom(paramType)) {
+            return ctx -> ctx.getQueryParams().entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue()[0]));
+        }
+
+        // ============ GESTION OBJETS CUSTOM ============
+        if (isCustomObject(paramType)) {
+            // Métadonnées de la classe calculées dès la compilation du plan
+            BeanDescriptor.of(paramType.isArray() ? paramType.getComponentType() : paramType);
+            if (paramType.isArray()) {
+                return ctx -> bindObjectArray(paramType, paramName, ctx.getParamTree().child(paramName),
+                        ctx.getDebug());
             }
+            return ctx -> bindObject(paramType, paramName, ctx.getParamTree().child(paramName), ctx.getDebug());
+        }
 
-            // ============ GESTION TYPES SIMPLES ============
-            String rawValue = pathParams != null && pathParams.containsKey(paramName)
-                    ? pathParams.get(paramName)
-                    : (queryParams.containsKey(paramName) ? queryParams.get(paramName)[0] : null);
+        // ============ GESTION TYPES SIMPLES ============
+        TypeConverter.Converter conv = TypeConverter.forType(paramType);
+        int slot = indexOf(pathParamNames, paramName);
+        return ctx -> {
+            String rawValue;
+            if (slot >= 0) {
+                rawValue = ctx.getPathParams().get(slot);
+            } else {
+                String[] values = ctx.getQueryParams().get(paramName);
+                rawValue = values != null ? values[0] : null;
+            }
 
-            args[i] = converter.convert(rawValue, paramType);
+            Object value = TypeConverter.convert(rawValue, conv);
 
-            if (DEBUG && debug != null) {
-                debug.append("Param #").append(i)
+            StringBuilder debug = ctx.getDebug();
+            if (debug != null) {
+                debug.append("Param #").append(index)
                         .append(" [").append(paramName)
-                        .append("]  ").append(rawValue)
-                        .append("  →  ").append(args[i])
+                        .append("]  ").append(Tracer.mask(rawValue))
                         .append(" (").append(paramType.getSimpleName()).append(")\n");
             }
+            return value;
+        };
+    }
+
+    private static int indexOf(String[] names, String name) {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
         }
-        return args;
+        return -1;
     }
 
-    // ===================== GESTION SESSION =====================
+    /**
+     * Map&lt;String, List&lt;Upload&gt;&gt;
+     */
+    private boolean isUploadMap(Type genericType) {
+        if (genericType instanceof ParameterizedType) {
+            Type[] typeArgs = ((ParameterizedType) genericType).getActualTypeArguments();
+            if (typeArgs.length == 2 &&
+                typeArgs[0].equals(String.class) &&
+                typeArgs[1] instanceof ParameterizedType) {
+                ParameterizedType listType = (ParameterizedType) typeArgs[1];
+                return listType.getRawType().equals(List.class) &&
+                       listType.getActualTypeArguments()[0].equals(Upload.class);
+            }
+        }
+        return false;
+    }
 
-    private CustomSession resolveSession(HttpServletRequest req, boolean create, StringBuilder debug) {
-        String sessionId = getSessionIdFromCookie(req);
-        
-        if (DEBUG && debug != null) {
-            debug.append("\n=== Résolution de la session ===\n");
-            debug.append("Session ID from cookie: ").append(sessionId != null ? sessionId : "null").append("\n");
+    /**
+     * List&lt;Upload&gt;
+     */
+    private boolean isUploadList(Type genericType) {
+        if (genericType instanceof ParameterizedType) {
+            Type[] typeArgs = ((ParameterizedType) genericType).getActualTypeArguments();
+            return typeArgs.length == 1 && typeArgs[0].equals(Upload.class);
         }
+        return false;
+    }
 
-        CustomSession session = null;
-        
-        if (sessionId != null) {
-            session = SessionManager.getSession(sessionId);
-            if (DEBUG && debug != null) {
-                if (session != null) {
-                    debug.append("Session trouvée: ").append(sessionId).append("\n");
-                    debug.append("Session expirée: ").append(session.isExpired()).append("\n");
-                } else {
-                    debug.append("Session non trouvée dans SessionManager (peut-être expirée ou serveur redémarré)\n");
-                }
-            }
-            if (session != null) {
-                return session;
+    // ===================== GESTION SESSION =====================
+
+    private CustomSession resolveSession(BindingContext ctx, boolean create) {
+        StringBuilder debug = ctx.getDebug();
+        CustomSession session;
+
+        if (ctx.isSessionResolved()) {
+            // Déjà recherchée par FrontServlet pour la vérification de sécurité
+            session = ctx.getSession();
+            if (debug != null) {
+                debug.append("\n=== Session (déjà résolue pour la sécurité) ===\n");
             }
+        } else {
+            session = findSession(ctx.getRequest(), debug);
         }
 
-        if (create) {
+        if (session == null && create) {
             session = SessionManager.createSession();
-            if (DEBUG && debug != null) {
-                debug.append("Nouvelle session créée: ").append(session.getSessionId()).append("\n");
+            if (debug != null) {
+                debug.append("Nouvelle session créée: ").append(Tracer.mask(session.getSessionId())).append("\n");
             }
-            return session;
+        } else if (session == null && debug != null) {
+            debug.append("Aucune session (create=false)\n");
         }
 
-        if (DEBUG && debug != null) {
-            debug.append("Aucune session (create=false)\n");
+        ctx.setSession(session);
+        if (session != null) {
+            // Stocker la session dans la requête pour le ResponseRenderer (cookie)
+            ctx.getRequest().setAttribute("__current_session", session);
         }
-        return null;
+        return session;
     }
 
-    private String getSessionIdFromCookie(HttpServletRequest req) {
-        Cookie[] cookies = req.getCookies();
-        if (cookies != null) {
-            for (Cookie cookie : cookies) {
-                if (SESSION_COOKIE_NAME.equals(cookie.getName())) {
-                    return cookie.getValue();
-                }
+    private CustomSession findSession(HttpServletRequest req, StringBuilder debug) {
+        String sessionId = SessionResolver.getSessionId(req);
+        
+        if (debug != null) {
+            debug.append("\n=== Résolution de la session ===\n");
+            debug.append("Session ID from cookie: ").append(Tracer.mask(sessionId)).append("\n");
+        }
+
+        CustomSession session = SessionManager.getSession(sessionId);
+        if (debug != null && sessionId != null) {
+            if (session != null) {
+                debug.append("Session trouvée\n");
+                debug.append("Session expirée: ").append(session.isExpired()).append("\n");
+            } else {
+                debug.append("Session non trouvée dans SessionManager (peut-être expirée ou serveur redémarré)\n");
             }
         }
-        return null;
+        return session;
     }
 
     // ===================== GESTION UPLOAD =====================
@@ -174,9 +247,8 @@ public class ArgumentResolver {
         Map<String, List<Upload>> uploadMap = new HashMap<>();
         String uploadDir = req.getServletContext().getRealPath("/uploads");
         
-        if (DEBUG && debug != null) {
+        if (debug != null) {
             debug.append("\n=== Collecte des uploads ===\n");
-            debug.append("Upload directory: ").append(uploadDir).append("\n");
         }
 
         for (Part part : req.getParts()) {
@@ -187,9 +259,9 @@ public class ArgumentResolver {
                 
                 uploadMap.computeIfAbsent(fieldName, k -> new ArrayList<>()).add(upload);
                 
-                if (DEBUG && debug != null) {
+                if (debug != null) {
                     debug.append("  ").append(fieldName).append(": ")
-                         .append(fileName).append(" (")
+                         .append(Tracer.mask(fileName)).append(" (")
                          .append(part.getSize()).append(" bytes)\n");
                 }
             }
@@ -209,9 +281,9 @@ public class ArgumentResolver {
                     Upload upload = new Upload(part, uploadDir);
                     uploads.add(upload);
                     
-                    if (DEBUG && debug != null) {
+                    if (debug != null) {
                         debug.append("Upload: ").append(fieldName).append(" → ")
-                             .append(fileName).append(" (")
+                             .append(Tracer.mask(fileName)).append(" (")
                              .append(part.getSize()).append(" bytes)\n");
                     }
                 }
@@ -230,9 +302,9 @@ public class ArgumentResolver {
                 if (fileName != null && !fileName.isEmpty()) {
                     Upload upload = new Upload(part, uploadDir);
                     
-                    if (DEBUG && debug != null) {
+                    if (debug != null) {
                         debug.append("Upload: ").append(fieldName).append(" → ")
-                             .append(fileName).append(" (")
+                             .append(Tracer.mask(fileName)).append(" (")
                              .append(part.getSize()).append(" bytes)\n");
                     }
                     
@@ -246,11 +318,14 @@ public class ArgumentResolver {
 
     // ===================== HELPER METHODS =====================
 
-    private String getParameterName(Parameter param) {
+    private String getParameterName(Parameter param, String declaredName) {
         RequestParam annotation = param.getAnnotation(RequestParam.class);
         if (annotation != null && !annotation.name().isEmpty()) {
             return annotation.name();
         }
+        if (!param.isNamePresent() && declaredName != null) {
+            return declaredName;
+        }
         return param.getName();
     }
 
@@ -277,203 +352,201 @@ public class ArgumentResolver {
     // ===================== BINDING OBJETS & TABLEAUX =====================
 
     private Object bindObjectArray(Class<?> arrayType, String paramName,
-            Map<String, String[]> params, StringBuilder debug) throws Exception {
+            ParamTree node, StringBuilder debug) throws Exception {
         Class<?> componentType = arrayType.getComponentType();
-        if (DEBUG && debug != null) {
+        if (debug != null) {
             debug.append("\n=== Binding tableau ").append(componentType.getSimpleName())
                     .append("[] (prefix: ").append(paramName).append(") ===\n");
         }
 
-        int maxIndex = -1;
-        String prefix = paramName + "[";
-        for (String key : params.keySet()) {
-            if (key.startsWith(prefix)) {
-                int end = key.indexOf(']', prefix.length());
-                if (end > 0) {
-                    try {
-                        int idx = Integer.parseInt(key.substring(prefix.length(), end));
-                        maxIndex = Math.max(maxIndex, idx);
-                    } catch (NumberFormatException ignored) {
-                    }
-                }
-            }
-        }
-
+        int maxIndex = node != null ? node.maxIndex() : -1;
         if (maxIndex == -1)
             return Array.newInstance(componentType, 0);
 
         Object array = Array.newInstance(componentType, maxIndex + 1);
         for (int i = 0; i <= maxIndex; i++) {
-            String elementPrefix = paramName + "[" + i + "]";
-            Object element = bindObject(componentType, elementPrefix, params, debug);
+            String elementPrefix = debug != null ? paramName + "[" + i + "]" : null;
+            Object element = bindObject(componentType, elementPrefix, node.child(i), debug);
             Array.set(array, i, element);
         }
         return array;
     }
 
+    /**
+     * @param node le sous-arbre des paramètres "prefix.*" (null si aucun)
+     */
     private Object bindObject(Class<?> targetClass, String prefix,
-            Map<String, String[]> params, StringBuilder debug) throws Exception {
-        Object instance = targetClass.getDeclaredConstructor().newInstance();
+            ParamTree node, StringBuilder debug) throws Exception {
+        Object instance = BeanDescriptor.of(targetClass).newInstance();
 
-        if (DEBUG && debug != null) {
+        if (debug != null) {
             debug.append("\n=== Binding objet ").append(targetClass.getSimpleName())
                     .append(" (prefix: ").append(prefix).append(") ===\n");
         }
 
-        for (Map.Entry<String, String[]> entry : params.entrySet()) {
-            String key = entry.getKey();
-            if (key.startsWith(prefix + ".")) {
-                String relativePath = key.substring(prefix.length() + 1);
-                setNestedValue(instance, relativePath, entry.getValue()[0], debug, 0);
-            }
+        if (node != null) {
+            populate(instance, node, debug, 0);
         }
         return instance;
     }
 
-    private void setNestedValue(Object instance, String path, String value,
-            StringBuilder debug, int depth) throws Exception {
-        String indent = "  ".repeat(depth + 1);
-        if (DEBUG && debug != null)
-            debug.append(indent).append("→ ").append(path).append("\n");
+    /**
+     * Remplit l'instance à partir des enfants du noeud : valeur simple,
+     * objet imbriqué (a.b) ou élément de tableau/collection (a[3])
+     */
+    private void populate(Object instance, ParamTree node, StringBuilder debug, int depth) throws Exception {
+        BeanDescriptor descriptor = BeanDescriptor.of(instance.getClass());
 
-        if (!path.contains(".") && !path.contains("[")) {
-            setFieldValue(instance, path, value, debug, depth);
-            return;
-        }
+        for (Map.Entry<String, ParamTree> entry : node.getChildren().entrySet()) {
+            String fieldName = entry.getKey();
+            ParamTree child = entry.getValue();
 
-        if (path.contains("[")) {
-            int bracketStart = path.indexOf('[');
-            String fieldName = path.substring(0, bracketStart);
-            int bracketEnd = path.indexOf(']');
-            int index = Integer.parseInt(path.substring(bracketStart + 1, bracketEnd));
-            String remaining = path.substring(bracketEnd + 1);
-            if (remaining.startsWith("."))
-                remaining = remaining.substring(1);
+            if (debug != null)
+                debug.append("  ".repeat(depth + 1)).append("→ ").append(fieldName).append("\n");
 
-            Object element = getOrCreateCollectionElement(instance, fieldName, index, debug, depth);
-            if (!remaining.isEmpty()) {
-                setNestedValue(element, remaining, value, debug, depth + 1);
+            if (child.getValue() != null) {
+                setFieldValue(instance, fieldName, child.getValue(), debug, depth);
             }
-            return;
-        }
 
-        int dot = path.indexOf('.');
-        String fieldName = path.substring(0, dot);
-        String remaining = path.substring(dot + 1);
+            if (child.hasChildren()) {
+                BeanDescriptor.FieldAccessor field = descriptor.field(fieldName);
+                if (field != null) {
+                    populate(getOrCreateNested(instance, field), child, debug, depth + 1);
+                }
+            }
 
-        Field field = findField(instance.getClass(), fieldName);
-        if (field == null)
-            return;
+            if (child.hasIndexedChildren()) {
+                populateIndexed(instance, descriptor.field(fieldName), fieldName, child, debug, depth + 1);
+            }
+        }
+    }
 
-        field.setAccessible(true);
+    /**
+     * Retourne l'objet imbriqué du champ, en le créant s'il est null
+     */
+    private Object getOrCreateNested(Object instance, BeanDescriptor.FieldAccessor field) throws Exception {
         Object nested = field.get(instance);
         if (nested == null) {
-            nested = field.getType().getDeclaredConstructor().newInstance();
+            nested = BeanDescriptor.of(field.getType()).newInstance();
             field.set(instance, nested);
         }
-        setNestedValue(nested, remaining, value, debug, depth + 1);
+        return nested;
     }
 
-    private Object getOrCreateCollectionElement(Object instance, String fieldName, int index,
-            StringBuilder debug, int depth) throws Exception {
-        Field field = findField(instance.getClass(), fieldName);
+    /**
+     * Remplit un champ tableau ou collection à partir des enfants indexés
+     * (a[0], a[1]...) : le conteneur est dimensionné une seule fois d'après
+     * le plus grand index, puis chaque élément est créé ou complété en place
+     */
+    private void populateIndexed(Object instance, BeanDescriptor.FieldAccessor field, String fieldName,
+            ParamTree node, StringBuilder debug, int depth) throws Exception {
         if (field == null)
             throw new Exception("Field not found: " + fieldName);
-        field.setAccessible(true);
 
-        Object collection = field.get(instance);
         Class<?> fieldType = field.getType();
+        int size = node.maxIndex() + 1;
 
         if (fieldType.isArray()) {
-            return handleNativeArray(instance, field, index, fieldType.getComponentType(), debug, depth);
+            Object array = sizedArray(instance, field, size);
+            BeanDescriptor elementDescriptor = BeanDescriptor.of(field.getElementType());
+            for (Map.Entry<Integer, ParamTree> item : node.getIndexedChildren().entrySet()) {
+                int index = item.getKey();
+                Object element = Array.get(array, index);
+                if (element == null) {
+                    element = elementDescriptor.newInstance();
+                    Array.set(array, index, element);
+                }
+                populate(element, item.getValue(), debug, depth);
+            }
+            return;
         }
 
         if (Collection.class.isAssignableFrom(fieldType)) {
-            Type generic = field.getGenericType();
-            Class<?> elementType = Object.class;
-            if (generic instanceof ParameterizedType) {
-                Type[] args = ((ParameterizedType) generic).getActualTypeArguments();
-                if (args.length > 0 && args[0] instanceof Class<?>) {
-                    elementType = (Class<?>) args[0];
-                }
-            }
-            return handleGenericCollection(instance, field, fieldType, index, elementType, debug, depth);
+            populateCollection(instance, field, node, size, debug, depth);
+            return;
         }
 
         throw new Exception("Unsupported collection type: " + fieldType);
     }
 
-    private Object handleNativeArray(Object instance, Field field, int index,
-            Class<?> elementType, StringBuilder debug, int depth) throws Exception {
+    /**
+     * Tableau du champ d'au moins size éléments (agrandi en une seule copie)
+     */
+    private Object sizedArray(Object instance, BeanDescriptor.FieldAccessor field, int size) throws Exception {
         Object array = field.get(instance);
-        if (array == null || Array.getLength(array) <= index) {
-            Object newArray = Array.newInstance(elementType, index + 1);
+        int length = array != null ? Array.getLength(array) : 0;
+        if (array == null || length < size) {
+            Object newArray = Array.newInstance(field.getElementType(), size);
             if (array != null)
-                System.arraycopy(array, 0, newArray, 0, Array.getLength(array));
+                System.arraycopy(array, 0, newArray, 0, length);
             field.set(instance, newArray);
             array = newArray;
         }
-        Object element = Array.get(array, index);
-        if (element == null) {
-            element = elementType.getDeclaredConstructor().newInstance();
-            Array.set(array, index, element);
-        }
-        return element;
+        return array;
     }
 
+    /**
+     * Collection du champ : une List à accès direct (ArrayList...) est
+     * complétée en place. Les autres (LinkedList, Set...) passent par une
+     * liste de travail, recopiée une fois les éléments complets (hashCode
+     * stable pour un Set, trous ignorés).
+     */
     @SuppressWarnings("unchecked")
-    private Object handleGenericCollection(Object instance, Field field, Class<?> collType,
-            int index, Class<?> elementType,
-            StringBuilder debug, int depth) throws Exception {
+    private void populateCollection(Object instance, BeanDescriptor.FieldAccessor field, ParamTree node,
+            int size, StringBuilder debug, int depth) throws Exception {
         Collection<Object> coll = (Collection<Object>) field.get(instance);
         if (coll == null) {
-            coll = createCollectionInstance(collType);
+            coll = field.newCollection();
             field.set(instance, coll);
         }
 
-        List<Object> list = (coll instanceof List) ? (List<Object>) coll : new ArrayList<>(coll);
-        while (list.size() <= index)
+        boolean inPlace = coll instanceof List && coll instanceof RandomAccess;
+        List<Object> list;
+        if (inPlace) {
+            list = (List<Object>) coll;
+            if (list instanceof ArrayList) {
+                ((ArrayList<Object>) list).ensureCapacity(size);
+            }
+        } else {
+            list = new ArrayList<>(Math.max(size, coll.size()));
+            list.addAll(coll);
+        }
+        while (list.size() < size)
             list.add(null);
-        Object element = list.get(index);
-        if (element == null) {
-            element = elementType.getDeclaredConstructor().newInstance();
-            list.set(index, element);
-        }
-        if (!(coll instanceof List))
-            field.set(instance, list);
-        return element;
-    }
 
-    @SuppressWarnings("unchecked")
-    private Collection<Object> createCollectionInstance(Class<?> type) throws Exception {
-        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
-            return (Collection<Object>) type.getDeclaredConstructor().newInstance();
-        }
-        if (List.class.isAssignableFrom(type))
-            return new ArrayList<>();
-        if (Set.class.isAssignableFrom(type))
-            return new HashSet<>();
-        return new ArrayList<>();
+        BeanDescriptor elementDescriptor = BeanDescriptor.of(field.getElementType());
+        for (Map.Entry<Integer, ParamTree> item : node.getIndexedChildren().entrySet()) {
+            int index = item.getKey();
+            Object element = list.get(index);
+            if (element == null) {
+                element = elementDescriptor.newInstance();
+                list.set(index, element);
+            }
+            populate(element, item.getValue(), debug, depth);
+        }
+
+        if (!inPlace) {
+            coll.clear();
+            if (coll instanceof List) {
+                coll.addAll(list);
+                return;
+            }
+            for (Object element : list) {
+                if (element != null)
+                    coll.add(element);
+            }
+        }
     }
 
     private void setFieldValue(Object instance, String fieldName, String value,
             StringBuilder debug, int depth) throws Exception {
-        Field field = findField(instance.getClass(), fieldName);
+        BeanDescriptor.FieldAccessor field = BeanDescriptor.of(instance.getClass()).field(fieldName);
         if (field == null) {
-            if (DEBUG && debug != null) {
+            if (debug != null) {
                 debug.append("  ".repeat(depth + 1)).append("Field non trouvé : ").append(fieldName).append("\n");
             }
             return;
         }
-        field.setAccessible(true);
-        field.set(instance, converter.convert(value, field.getType()));
-    }
-
-    private Field findField(Class<?> clazz, String name) {
-        try {
-            return clazz.getDeclaredField(name);
-        } catch (NoSuchFieldException e) {
-            return clazz.getSuperclass() != null ? findField(clazz.getSuperclass(), name) : null;
-        }
+        field.setText(instance, value);
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package servlet.binding;
+
+/**
+ * Exception levée quand le corps ou les paramètres de la requête sont
+ * invalides (HTTP 400)
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public int getStatusCode() {
+        return 400;
+    }
+}
@@ -0,0 +1,235 @@
+package servlet.binding;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Métadonnées de binding d'une classe de formulaire, calculées une seule fois
+ * par classe : constructeur et accesseurs des champs sous forme de
+ * MethodHandle, convertisseur choisi selon le type du champ, type des
+ * éléments des tableaux et collections.
+ *
+ * Le binding d'un objet ne fait donc plus aucune recherche par réflexion
+ * (getDeclaredField, setAccessible, getDeclaredConstructor) par requête.
+ */
+public class BeanDescriptor {
+
+    private static final Map<Class<?>, BeanDescriptor> CACHE = new ConcurrentHashMap<>();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Class<?> type;
+    private final MethodHandle constructor; // null si pas de constructeur sans argument
+    private final Map<String, FieldAccessor> fields;
+
+    private BeanDescriptor(Class<?> type) {
+        this.type = type;
+        this.constructor = findConstructor(type);
+
+        // Parcours de la hiérarchie : un champ de la sous-classe masque celui
+        // de la classe parente (même règle que l'ancien findField)
+        Map<String, FieldAccessor> found = new HashMap<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || found.containsKey(field.getName())) {
+                    continue;
+                }
+                FieldAccessor accessor = FieldAccessor.of(field);
+                if (accessor != null) {
+                    found.put(field.getName(), accessor);
+                }
+            }
+        }
+        this.fields = Collections.unmodifiableMap(found);
+    }
+
+    public static BeanDescriptor of(Class<?> type) {
+        BeanDescriptor descriptor = CACHE.get(type);
+        if (descriptor == null) {
+            // Construit hors de computeIfAbsent : la construction peut elle-même
+            // demander d'autres descripteurs
+            descriptor = new BeanDescriptor(type);
+            BeanDescriptor previous = CACHE.putIfAbsent(type, descriptor);
+            if (previous != null) {
+                descriptor = previous;
+            }
+        }
+        return descriptor;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Crée une instance via le constructeur sans argument mis en cache
+     */
+    public Object newInstance() throws Exception {
+        if (constructor == null) {
+            throw new NoSuchMethodException(type.getName() + ".<init>()");
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Accesseur du champ (recherché aussi dans les classes parentes), ou null
+     */
+    public FieldAccessor field(String name) {
+        return fields.get(name);
+    }
+
+    private static MethodHandle findConstructor(Class<?> type) {
+        if (type.isInterface() || type.isPrimitive() || type.isArray() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> ctor = type.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            return LOOKUP.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // ===================== CHAMPS =====================
+
+    public static class FieldAccessor {
+        private final String name;
+        private final Class<?> type;
+        private final MethodHandle getter; // (Object)Object
+        private final MethodHandle setter; // (Object,Object)void
+        private final TypeConverter.Converter converter;
+        private final Class<?> elementType; // composant d'un tableau / élément d'une collection
+        private final Supplier<Collection<Object>> collectionFactory;
+
+        private FieldAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            this.name = field.getName();
+            this.type = field.getType();
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = TypeConverter.forType(type);
+
+            if (type.isArray()) {
+                this.elementType = type.getComponentType();
+                this.collectionFactory = null;
+            } else if (Collection.class.isAssignableFrom(type)) {
+                this.elementType = elementTypeOf(field.getGenericType());
+                this.collectionFactory = collectionFactory(type);
+            } else {
+                this.elementType = null;
+                this.collectionFactory = null;
+            }
+        }
+
+        static FieldAccessor of(Field field) {
+            try {
+                field.setAccessible(true);
+                MethodHandle getter = LOOKUP.unreflectGetter(field)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                MethodHandle setter = LOOKUP.unreflectSetter(field)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                return new FieldAccessor(field, getter, setter);
+            } catch (IllegalAccessException | RuntimeException e) {
+                // champ inaccessible (module fermé, etc.) : ignoré comme un champ inexistant
+                System.err.println("[BeanDescriptor] Champ ignoré " + field + " : " + e.getMessage());
+                return null;
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public Class<?> getElementType() {
+            return elementType;
+        }
+
+        public Object get(Object instance) throws Exception {
+            try {
+                return (Object) getter.invokeExact(instance);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        public void set(Object instance, Object value) throws Exception {
+            if (value == null && type.isPrimitive()) {
+                throw new IllegalArgumentException("Valeur null pour le champ primitif " + name);
+            }
+            try {
+                setter.invokeExact(instance, value);
+            } catch (ClassCastException e) {
+                throw new IllegalArgumentException("Type incompatible pour le champ " + name + " ("
+                        + type.getSimpleName() + ") : " + value.getClass().getSimpleName(), e);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        /**
+         * Convertit la valeur texte avec le convertisseur du champ puis l'affecte
+         */
+        public void setText(Object instance, String value) throws Exception {
+            set(instance, TypeConverter.convert(value, converter));
+        }
+
+        public Collection<Object> newCollection() throws Exception {
+            return collectionFactory != null ? collectionFactory.get() : new ArrayList<>();
+        }
+
+        private static Class<?> elementTypeOf(Type generic) {
+            if (generic instanceof ParameterizedType) {
+                Type[] args = ((ParameterizedType) generic).getActualTypeArguments();
+                if (args.length > 0 && args[0] instanceof Class<?>) {
+                    return (Class<?>) args[0];
+                }
+            }
+            return Object.class;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Supplier<Collection<Object>> collectionFactory(Class<?> type) {
+            MethodHandle ctor = findConstructor(type);
+            if (ctor != null) {
+                return () -> {
+                    try {
+                        return (Collection<Object>) (Object) ctor.invokeExact();
+                    } catch (Throwable t) {
+                        throw new IllegalStateException(t);
+                    }
+                };
+            }
+            if (Set.class.isAssignableFrom(type))
+                return HashSet::new;
+            return ArrayList::new;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package servlet.binding;
+
+import jakarta.servlet.http.HttpServletRequest;
+import servlet.session.CustomSession;
+import servlet.utils.PathParams;
+
+import java.util.Map;
+
+/**
+ * État d'une requête partagé par les binders d'un plan : ce qui est calculé
+ * une fois (Content-Type multipart, Map des paramètres) n'est pas recalculé
+ * pour chaque paramètre.
+ */
+public class BindingContext {
+
+    private final HttpServletRequest request;
+    private final PathParams pathParams;
+    private final StringBuilder debug;
+    private Map<String, String[]> queryParams;
+    private Boolean multipart;
+    private ParamTree paramTree;
+    private CustomSession session;
+    private boolean sessionResolved;
+
+    public BindingContext(HttpServletRequest request, PathParams pathParams, StringBuilder debug) {
+        this.request = request;
+        this.pathParams = pathParams;
+        this.debug = debug;
+    }
+
+    public HttpServletRequest getRequest() {
+        return request;
+    }
+
+    public PathParams getPathParams() {
+        return pathParams;
+    }
+
+    /**
+     * Texte de la trace de la requête, null si elle n'est pas tracée
+     */
+    public StringBuilder getDebug() {
+        return debug;
+    }
+
+    public Map<String, String[]> getQueryParams() {
+        if (queryParams == null) {
+            queryParams = request.getParameterMap();
+        }
+        return queryParams;
+    }
+
+    /**
+     * Arbre des paramètres, construit une seule fois par requête et seulement
+     * si un objet de formulaire doit être bindé
+     */
+    public ParamTree getParamTree() {
+        if (paramTree == null) {
+            paramTree = ParamTree.parse(getQueryParams());
+        }
+        return paramTree;
+    }
+
+    public boolean isMultipart() {
+        if (multipart == null) {
+            String contentType = request.getContentType();
+            multipart = contentType != null
+                    && contentType.regionMatches(true, 0, "multipart/form-data", 0, 19);
+        }
+        return multipart;
+    }
+
+    /**
+     * Indique si la session a déjà été recherchée pour cette requête
+     * (même si elle n'existe pas)
+     */
+    public boolean isSessionResolved() {
+        return sessionResolved;
+    }
+
+    public CustomSession getSession() {
+        return session;
+    }
+
+    public void setSession(CustomSession session) {
+        this.session = session;
+        this.sessionResolved = true;
+    }
+}
@@ -0,0 +1,26 @@
+package servlet.binding;
+
+/**
+ * Plan de binding d'une route : un binder spécialisé par paramètre de la
+ * méthode, dans l'ordre
+ */
+public class BindingPlan {
+
+    private final ParameterBinder[] binders;
+
+    public BindingPlan(ParameterBinder[] binders) {
+        this.binders = binders;
+    }
+
+    public Object[] bind(BindingContext ctx) throws Exception {
+        Object[] args = new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            args[i] = binders[i].bind(ctx);
+        }
+        return args;
+    }
+
+    public int size() {
+        return binders.length;
+    }
+}
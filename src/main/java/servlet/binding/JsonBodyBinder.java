@@ -0,0 +1,210 @@
+package servlet.binding;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.servlet.http.HttpServletRequest;
+import servlet.annotations.RequestBody;
+import servlet.config.FrameworkConfig;
+import servlet.utils.JsonUtil;
+
+/**
+ * Binder d'un paramètre @RequestBody : le corps JSON est désérialisé au fil
+ * de la lecture de req.getInputStream(), avec l'ObjectReader mis en cache
+ * pour le type (générique) du paramètre.
+ *
+ * La taille est vérifiée sur Content-Length avant toute lecture, puis pendant
+ * la lecture pour les corps sans longueur (chunked). Un corps compressé
+ * (Content-Encoding: gzip ou deflate) est décompressé à la lecture ; la
+ * limite porte alors sur la taille décompressée.
+ */
+public class JsonBodyBinder implements ParameterBinder {
+
+    private static final long DEFAULT_MAX_SIZE = 1024 * 1024;
+
+    private final int index;
+    private final String paramName;
+    private final Type type;
+    private final ObjectReader reader;
+    private final boolean required;
+    private final long maxSize;
+
+    public JsonBodyBinder(int index, String paramName, Parameter param) {
+        RequestBody annotation = param.getAnnotation(RequestBody.class);
+        this.index = index;
+        this.paramName = paramName;
+        this.type = param.getParameterizedType();
+        this.reader = JsonUtil.readerFor(type);
+        this.required = annotation.required();
+        this.maxSize = annotation.maxSize() >= 0
+                ? annotation.maxSize()
+                : FrameworkConfig.getInstance().getLong("framework.json.body.max", DEFAULT_MAX_SIZE);
+    }
+
+    @Override
+    public Object bind(BindingContext ctx) throws Exception {
+        HttpServletRequest req = ctx.getRequest();
+
+        String contentType = req.getContentType();
+        if (contentType != null && !isJson(contentType)) {
+            throw new UnsupportedMediaTypeException(contentType, "application/json");
+        }
+
+        // Content-Length d'un corps compressé : taille compressée, sans rapport
+        // avec la limite (vérifiée à la lecture sur la taille décompressée)
+        String encoding = contentEncoding(req);
+        long length = req.getContentLengthLong();
+        if (encoding == null && length > maxSize) {
+            throw new PayloadTooLargeException(maxSize);
+        }
+
+        Object value;
+        LimitedInputStream in = null;
+        try (InputStream body = decode(req, encoding)) {
+            in = new LimitedInputStream(body, maxSize);
+            try (JsonParser parser = reader.createParser(in)) {
+                if (parser.nextToken() == null) {
+                    if (required) {
+                        throw new BadRequestException("Corps JSON requis pour le paramètre " + paramName);
+                    }
+                    value = null;
+                } else {
+                    value = reader.readValue(parser);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            if (in != null && in.isExceeded()) {
+                throw new PayloadTooLargeException(maxSize);
+            }
+            throw new BadRequestException("JSON invalide pour le paramètre " + paramName + " : "
+                    + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            if (in != null && in.isExceeded()) {
+                throw new PayloadTooLargeException(maxSize);
+            }
+            if (e instanceof ZipException) {
+                throw new BadRequestException("Corps compressé invalide pour le paramètre " + paramName, e);
+            }
+            throw e;
+        }
+
+        StringBuilder debug = ctx.getDebug();
+        if (debug != null) {
+            debug.append("Param #").append(index)
+                    .append(" [").append(paramName)
+                    .append("]  corps JSON (").append(in.getCount()).append(" octets)  →  ")
+                    .append(type.getTypeName()).append("\n");
+        }
+        return value;
+    }
+
+    /**
+     * Content-Encoding du corps, ou null s'il n'est pas compressé
+     */
+    private static String contentEncoding(HttpServletRequest req) {
+        String encoding = req.getHeader("Content-Encoding");
+        if (encoding == null || encoding.isBlank() || encoding.trim().equalsIgnoreCase("identity")) {
+            return null;
+        }
+        return encoding.trim();
+    }
+
+    /**
+     * Flux du corps, décompressé selon Content-Encoding (null : tel quel)
+     */
+    private InputStream decode(HttpServletRequest req, String encoding) throws IOException {
+        if (encoding == null) {
+            return req.getInputStream();
+        }
+        if (encoding.equalsIgnoreCase("gzip") || encoding.equalsIgnoreCase("x-gzip")) {
+            PushbackInputStream raw = new PushbackInputStream(req.getInputStream(), 1);
+            int first = raw.read();
+            if (first < 0) {
+                return raw; // corps vide : traité comme tel
+            }
+            raw.unread(first);
+            try {
+                return new GZIPInputStream(raw, 8192);
+            } catch (ZipException | EOFException e) {
+                throw new BadRequestException("Corps gzip invalide pour le paramètre " + paramName, e);
+            }
+        }
+        if (encoding.equalsIgnoreCase("deflate")) {
+            // Inflater interne : libéré à la fermeture du flux
+            return new InflaterInputStream(req.getInputStream());
+        }
+        throw UnsupportedMediaTypeException.encoding(encoding, "gzip, deflate");
+    }
+
+    /**
+     * application/json, ou un type JSON spécialisé (application/xxx+json)
+     */
+    private static boolean isJson(String contentType) {
+        int end = contentType.indexOf(';');
+        String mime = (end >= 0 ? contentType.substring(0, end) : contentType).trim();
+        return mime.equalsIgnoreCase("application/json")
+                || (mime.regionMatches(true, 0, "application/", 0, 12)
+                        && mime.regionMatches(true, mime.length() - 5, "+json", 0, 5));
+    }
+
+    /**
+     * Flux qui échoue dès que plus de maxSize octets ont été lus
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private final long maxSize;
+        private long count;
+        private boolean exceeded;
+
+        LimitedInputStream(InputStream in, long maxSize) {
+            super(in);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                add(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = super.read(buffer, off, len);
+            if (n > 0) {
+                add(n);
+            }
+            return n;
+        }
+
+        private void add(int n) throws IOException {
+            count += n;
+            if (count > maxSize) {
+                exceeded = true;
+                throw new IOException("Corps de la requête supérieur à " + maxSize + " octets");
+            }
+        }
+
+        boolean isExceeded() {
+            return exceeded;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
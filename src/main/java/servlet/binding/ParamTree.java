@@ -0,0 +1,130 @@
+package servlet.binding;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Arbre des paramètres d'une requête, construit en une seule passe sur la
+ * Map des paramètres.
+ *
+ * "user.address.city", "items[3].name" ou "a.b[3].c" deviennent des chemins
+ * dans l'arbre : un noeud a des enfants nommés (après un '.') et des enfants
+ * indexés (entre crochets). Le binding des objets parcourt ensuite l'arbre, ce
+ * qui évite de reparcourir toute la Map pour chaque objet ou chaque index.
+ */
+public class ParamTree {
+
+    private String value;
+    private Map<String, ParamTree> children;
+    private TreeMap<Integer, ParamTree> indexed;
+
+    /**
+     * Construit l'arbre à partir de la Map de la requête (première valeur de
+     * chaque paramètre)
+     */
+    public static ParamTree parse(Map<String, String[]> params) {
+        ParamTree root = new ParamTree();
+        for (Map.Entry<String, String[]> entry : params.entrySet()) {
+            String[] values = entry.getValue();
+            if (values != null && values.length > 0) {
+                root.insert(entry.getKey(), values[0]);
+            }
+        }
+        return root;
+    }
+
+    private void insert(String key, String paramValue) {
+        ParamTree node = this;
+        int pos = 0;
+        int length = key.length();
+
+        while (pos < length) {
+            char c = key.charAt(pos);
+            if (c == '[') {
+                int end = key.indexOf(']', pos);
+                if (end < 0) {
+                    return; // clé malformée : ignorée
+                }
+                int index;
+                try {
+                    index = Integer.parseInt(key, pos + 1, end, 10);
+                } catch (NumberFormatException e) {
+                    return; // index non numérique : ignoré
+                }
+                if (index < 0) {
+                    return;
+                }
+                node = node.indexedChild(index);
+                pos = end + 1;
+            } else {
+                if (c == '.') {
+                    pos++;
+                }
+                int end = pos;
+                while (end < length && key.charAt(end) != '.' && key.charAt(end) != '[') {
+                    end++;
+                }
+                node = node.namedChild(key.substring(pos, end));
+                pos = end;
+            }
+        }
+        node.value = paramValue;
+    }
+
+    private ParamTree namedChild(String name) {
+        if (children == null) {
+            children = new LinkedHashMap<>();
+        }
+        return children.computeIfAbsent(name, k -> new ParamTree());
+    }
+
+    private ParamTree indexedChild(int index) {
+        if (indexed == null) {
+            indexed = new TreeMap<>();
+        }
+        return indexed.computeIfAbsent(index, k -> new ParamTree());
+    }
+
+    /**
+     * Valeur du paramètre se terminant sur ce noeud (ou null)
+     */
+    public String getValue() {
+        return value;
+    }
+
+    public ParamTree child(String name) {
+        return children != null ? children.get(name) : null;
+    }
+
+    public ParamTree child(int index) {
+        return indexed != null ? indexed.get(index) : null;
+    }
+
+    public Map<String, ParamTree> getChildren() {
+        return children != null ? children : Collections.emptyMap();
+    }
+
+    /**
+     * Enfants indexés, triés par index
+     */
+    public Map<Integer, ParamTree> getIndexedChildren() {
+        return indexed != null ? indexed : Collections.emptyMap();
+    }
+
+    public boolean hasChildren() {
+        return children != null && !children.isEmpty();
+    }
+
+    public boolean hasIndexedChildren() {
+        return indexed != null && !indexed.isEmpty();
+    }
+
+    /**
+     * Plus grand index présent, ou -1
+     */
+    public int maxIndex() {
+        return hasIndexedChildren() ? indexed.lastKey() : -1;
+    }
+}
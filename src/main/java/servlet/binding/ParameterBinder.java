@@ -0,0 +1,10 @@
+package servlet.binding;
+
+/**
+ * Résout la valeur d'un paramètre de méthode de contrôleur. Les binders sont
+ * choisis une fois par route au démarrage (voir ArgumentResolver.compile).
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+    Object bind(BindingContext ctx) throws Exception;
+}
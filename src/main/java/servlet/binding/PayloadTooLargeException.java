@@ -0,0 +1,16 @@
+package servlet.binding;
+
+/**
+ * Exception levée quand le corps de la requête dépasse la taille autorisée
+ * (HTTP 413)
+ */
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(long maxSize) {
+        super("Corps de la requête trop volumineux (maximum " + maxSize + " octets)");
+    }
+
+    public int getStatusCode() {
+        return 413;
+    }
+}
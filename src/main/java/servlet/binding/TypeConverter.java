@@ -2,22 +2,46 @@ package servlet.binding;
 
 public class TypeConverter {
 
+    /**
+     * Conversion d'une valeur texte vers un type précis, choisie une fois
+     * (voir forType) au lieu de tester le type à chaque appel
+     */
+    @FunctionalInterface
+    public interface Converter {
+        Object convert(String value);
+    }
+
+    private static final Converter STRING = v -> v;
+    private static final Converter INT = Integer::parseInt;
+    private static final Converter LONG = Long::parseLong;
+    private static final Converter DOUBLE = Double::parseDouble;
+    private static final Converter FLOAT = Float::parseFloat;
+    private static final Converter BOOLEAN = Boolean::parseBoolean;
+
     public static Object convert(String value, Class<?> targetType) {
+        return convert(value, forType(targetType));
+    }
+
+    public static Object convert(String value, Converter converter) {
         if (value == null || value.isBlank()) {
             return null;
         }
+        return converter.convert(value);
+    }
+
+    public static Converter forType(Class<?> targetType) {
         if (targetType == String.class)
-            return value;
+            return STRING;
         if (targetType == int.class || targetType == Integer.class)
-            return Integer.parseInt(value);
+            return INT;
         if (targetType == long.class || targetType == Long.class)
-            return Long.parseLong(value);
+            return LONG;
         if (targetType == double.class || targetType == Double.class)
-            return Double.parseDouble(value);
+            return DOUBLE;
         if (targetType == float.class || targetType == Float.class)
-            return Float.parseFloat(value);
+            return FLOAT;
         if (targetType == boolean.class || targetType == Boolean.class)
-            return Boolean.parseBoolean(value);
-        return value; // fallback
+            return BOOLEAN;
+        return STRING; // fallback
     }
 }
\ No newline at end of file
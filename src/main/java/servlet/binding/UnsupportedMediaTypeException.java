@@ -0,0 +1,28 @@
+package servlet.binding;
+
+/**
+ * Exception levée quand le Content-Type de la requête n'est pas celui attendu
+ * (HTTP 415)
+ */
+public class UnsupportedMediaTypeException extends RuntimeException {
+
+    public UnsupportedMediaTypeException(String contentType, String expected) {
+        super("Content-Type non supporté : " + contentType + " (attendu : " + expected + ")");
+    }
+
+    private UnsupportedMediaTypeException(String message) {
+        super(message);
+    }
+
+    /**
+     * Content-Encoding du corps non supporté
+     */
+    public static UnsupportedMediaTypeException encoding(String encoding, String expected) {
+        return new UnsupportedMediaTypeException("Content-Encoding non supporté : " + encoding
+                + " (attendu : " + expected + ")");
+    }
+
+    public int getStatusCode() {
+        return 415;
+    }
+}
@@ -0,0 +1,129 @@
+package servlet.cache;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jakarta.servlet.http.HttpServletRequest;
+import servlet.annotations.Cacheable;
+import servlet.security.SecurityConfig;
+import servlet.session.CustomSession;
+import servlet.utils.PathParams;
+
+/**
+ * Règle de cache d'une route, lue une fois dans @Cacheable, et construction
+ * des clés : "GET /users/{id}|id=3|q=abc|role=admin". Les clés d'une route
+ * commencent toutes par "méthode motif", ce qui permet de les évincer par
+ * préfixe (ResponseCache.evict).
+ */
+public class CachePolicy {
+
+    private final long ttlMillis;
+    private final long staleMillis;
+    private final String[] params; // null : tous les paramètres
+    private final boolean perRole;
+
+    CachePolicy(long ttlMillis, long staleMillis, String[] params, boolean perRole) {
+        this.ttlMillis = ttlMillis;
+        this.staleMillis = staleMillis;
+        this.params = params;
+        this.perRole = perRole;
+    }
+
+    /**
+     * Règle de la méthode, ou null si elle n'est pas annotée @Cacheable
+     */
+    public static CachePolicy forMethod(Method method) {
+        Cacheable annotation = method.getAnnotation(Cacheable.class);
+        if (annotation == null) {
+            return null;
+        }
+        if (annotation.ttl() <= 0) {
+            throw new IllegalArgumentException("@Cacheable(ttl) doit être > 0 : " + method);
+        }
+        String[] params = annotation.params();
+        if (Arrays.asList(params).contains("*")) {
+            params = null;
+        } else {
+            params = params.clone();
+            Arrays.sort(params);
+        }
+        return new CachePolicy(annotation.ttl() * 1000, Math.max(0, annotation.staleWhileRevalidate()) * 1000,
+                params, annotation.perRole());
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public long getStaleMillis() {
+        return staleMillis;
+    }
+
+    public boolean isPerRole() {
+        return perRole;
+    }
+
+    /**
+     * Clé de la requête. prefix est "méthode motif" de la route.
+     */
+    public String key(String prefix, PathParams pathParams, HttpServletRequest req, CustomSession session) {
+        StringBuilder key = new StringBuilder(prefix);
+        for (int i = 0; i < pathParams.size(); i++) {
+            key.append('|').append(pathParams.getName(i)).append('=').append(escape(pathParams.get(i)));
+        }
+
+        if (params == null) {
+            // Tous les paramètres, triés : l'ordre dans l'URL ne change pas la clé
+            Map<String, String[]> sorted = new TreeMap<>(req.getParameterMap());
+            for (Map.Entry<String, String[]> entry : sorted.entrySet()) {
+                appendParam(key, entry.getKey(), entry.getValue());
+            }
+        } else {
+            for (String name : params) {
+                appendParam(key, name, req.getParameterValues(name));
+            }
+        }
+
+        if (perRole) {
+            key.append("|role=").append(escape(role(session)));
+        }
+        return key.toString();
+    }
+
+    private static void appendParam(StringBuilder key, String name, String[] values) {
+        if (values == null) {
+            return;
+        }
+        for (String value : values) {
+            key.append('|').append(escape(name)).append('=').append(escape(value));
+        }
+    }
+
+    // Une valeur contenant '|' ne doit pas pouvoir imiter un autre paramètre
+    private static String escape(String value) {
+        if (value.indexOf('|') < 0 && value.indexOf('\\') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("|", "\\|");
+    }
+
+    private static String role(CustomSession session) {
+        if (session == null) {
+            return "";
+        }
+        Object value = session.getAttribute(SecurityConfig.getInstance().getRoleSessionVariable());
+        if (value instanceof String[]) {
+            String[] roles = ((String[]) value).clone();
+            Arrays.sort(roles);
+            return String.join(",", roles);
+        }
+        if (value instanceof Collection) {
+            return String.join(",", ((Collection<?>) value).stream().map(String::valueOf).sorted()
+                    .toArray(String[]::new));
+        }
+        return value != null ? value.toString() : "";
+    }
+}
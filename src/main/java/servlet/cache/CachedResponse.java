@@ -0,0 +1,122 @@
+package servlet.cache;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.response.ETags;
+
+/**
+ * Réponse conservée par ResponseCache : statut, en-têtes et corps sérialisé,
+ * partagés en lecture seule entre les requêtes.
+ */
+public class CachedResponse {
+
+    private final String key;
+    private final int status;
+    private final List<String[]> headers;
+    private final byte[] body;
+    private final long storedAt;
+    private final long expiresAt;
+    private final long staleUntil;
+    private final long size;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    volatile boolean referenced;
+    volatile boolean removed;
+
+    CachedResponse(String key, int status, List<String[]> headers, byte[] body, long storedAt,
+            CachePolicy policy) {
+        this.key = key;
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.storedAt = storedAt;
+        this.expiresAt = storedAt + policy.getTtlMillis();
+        this.staleUntil = expiresAt + policy.getStaleMillis();
+
+        // Estimation de l'empreinte mémoire : corps, clé, en-têtes, objets
+        long estimate = 96 + body.length + 2L * key.length();
+        for (String[] header : headers) {
+            estimate += 48 + 2L * (header[0].length() + header[1].length());
+        }
+        this.size = estimate;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    /**
+     * Expirée mais encore servie pendant staleWhileRevalidate
+     */
+    public boolean isStale(long now) {
+        return now >= expiresAt && now < staleUntil;
+    }
+
+    boolean isDead(long now) {
+        return now >= staleUntil;
+    }
+
+    /**
+     * Une seule requête à la fois recalcule une entrée expirée
+     *
+     * @return true pour la requête chargée du recalcul
+     */
+    boolean startRefresh() {
+        return refreshing.compareAndSet(false, true);
+    }
+
+    void endRefresh() {
+        refreshing.set(false);
+    }
+
+    private String header(String name) {
+        for (String[] header : headers) {
+            if (header[0].equalsIgnoreCase(name)) {
+                return header[1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Renvoie la réponse conservée (ou 304 si l'ETag conservé correspond à
+     * If-None-Match). X-Cache indique HIT ou STALE, Age son
+     * ancienneté en secondes.
+     */
+    public void writeTo(HttpServletRequest req, HttpServletResponse resp, String state, long now)
+            throws IOException {
+        String etag = header("ETag");
+        if (etag != null && ETags.matches(req, etag)) {
+            // Le client possède déjà cette version
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            resp.setHeader("ETag", etag);
+            resp.setHeader("X-Cache", state);
+            resp.setHeader("Age", String.valueOf(Math.max(0, (now - storedAt) / 1000)));
+            return;
+        }
+        resp.setStatus(status);
+        for (String[] header : headers) {
+            if ("Content-Type".equalsIgnoreCase(header[0])) {
+                resp.setContentType(header[1]);
+            } else {
+                resp.addHeader(header[0], header[1]);
+            }
+        }
+        resp.setHeader("X-Cache", state);
+        resp.setHeader("Age", String.valueOf(Math.max(0, (now - storedAt) / 1000)));
+        resp.setContentLength(body.length);
+        resp.getOutputStream().write(body);
+    }
+}
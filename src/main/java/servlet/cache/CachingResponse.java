@@ -0,0 +1,124 @@
+package servlet.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.response.BufferedResponse;
+
+/**
+ * Réponse d'une requête @Cacheable en cours de calcul : le corps est gardé en
+ * mémoire pour être conservé, les en-têtes sont relevés au passage. Les
+ * cookies sont transmis sans être relevés.
+ *
+ * Au-delà de la taille maximale d'une entrée, la réponse passe en direct et
+ * ne sera pas conservée (cas d'un résultat écrit en flux).
+ */
+public class CachingResponse extends BufferedResponse {
+
+    private final ResponseCache cache;
+    private final String key;
+    private final CachePolicy policy;
+    private final CachedResponse previous;
+    private final List<String[]> headers = new ArrayList<>();
+
+    CachingResponse(HttpServletResponse resp, ResponseCache cache, String key, CachePolicy policy,
+            CachedResponse previous, long maxBytes) {
+        super(resp, maxBytes);
+        this.cache = cache;
+        this.key = key;
+        this.policy = policy;
+        this.previous = previous;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    CachePolicy getPolicy() {
+        return policy;
+    }
+
+    CachedResponse getPrevious() {
+        return previous;
+    }
+
+    boolean isStorable() {
+        return getBufferedStatus() == SC_OK && isBuffered();
+    }
+
+    List<String[]> getCapturedHeaders() {
+        return headers;
+    }
+
+    /**
+     * Conserve la réponse si possible (statut 200, taille admise), puis
+     * l'envoie au client
+     */
+    public void complete() throws IOException {
+        flushWriter();
+        cache.store(this);
+        if (isBuffered()) {
+            ((HttpServletResponse) getResponse()).setHeader("X-Cache", "MISS");
+        }
+        sendBuffer();
+    }
+
+    /**
+     * Calcul abandonné (erreur, résultat asynchrone) : rien n'est conservé
+     * ni envoyé, une autre requête pourra recalculer l'entrée
+     */
+    public void abandon() {
+        cache.release(this);
+    }
+
+    // ===================== EN-TÊTES =====================
+
+    @Override
+    public void reset() {
+        headers.clear();
+        super.reset();
+    }
+
+    @Override
+    public void setContentType(String type) {
+        super.setContentType(type);
+        // Valeur complète (charset compris) telle que retenue par le conteneur
+        replaceHeader("Content-Type", getContentType() != null ? getContentType() : type);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        super.setHeader(name, value);
+        replaceHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        super.addHeader(name, value);
+        headers.add(new String[] { name, value });
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    private void replaceHeader(String name, String value) {
+        for (Iterator<String[]> it = headers.iterator(); it.hasNext();) {
+            if (it.next()[0].equalsIgnoreCase(name)) {
+                it.remove();
+            }
+        }
+        if (value != null) {
+            headers.add(new String[] { name, value });
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package servlet.cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.config.FrameworkConfig;
+
+/**
+ * Cache des réponses des routes @Cacheable, borné en mémoire
+ * (framework.cache.max.bytes, 64 Mo par défaut ; une entrée au-delà de
+ * framework.cache.max.entry.bytes, 1 Mo, n'est pas conservée).
+ *
+ * La lecture est sans verrou (ConcurrentHashMap + bit de référence). Quand le
+ * budget est dépassé, l'insertion évince des entrées selon l'algorithme CLOCK
+ * comme RouteCache : les entrées lues depuis le dernier passage de l'aiguille
+ * ont une seconde chance.
+ *
+ * Une entrée expirée reste servie (STALE) pendant staleWhileRevalidate, tandis
+ * qu'une seule requête la recalcule ; au-delà, elle est recalculée comme une
+ * absence.
+ *
+ * Les contrôleurs invalident leurs données par préfixe de clé :
+ * ResponseCache.getInstance().evict("GET /users").
+ */
+public class ResponseCache {
+
+    private static ResponseCache instance;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final ArrayDeque<CachedResponse> clock = new ArrayDeque<>();
+    private long bytes = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private ResponseCache() {
+        FrameworkConfig config = FrameworkConfig.getInstance();
+        this.maxBytes = config.getLong("framework.cache.max.bytes", 64L * 1024 * 1024);
+        this.maxEntryBytes = Math.min(maxBytes, config.getLong("framework.cache.max.entry.bytes", 1024 * 1024));
+    }
+
+    public static synchronized ResponseCache getInstance() {
+        if (instance == null) {
+            instance = new ResponseCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Sert la requête depuis le cache si possible.
+     *
+     * @return null si la réponse a été envoyée, sinon la réponse à passer au
+     *         rendu, qui conservera le résultat (CachingResponse.complete)
+     */
+    public CachingResponse lookup(String key, CachePolicy policy, HttpServletRequest req, HttpServletResponse resp)
+            throws Exception {
+        long now = System.currentTimeMillis();
+        CachedResponse cached = entries.get(key);
+
+        if (cached != null && !cached.isDead(now)) {
+            cached.referenced = true;
+            if (cached.isFresh(now)) {
+                hits.increment();
+                cached.writeTo(req, resp, "HIT", now);
+                return null;
+            }
+            if (!cached.startRefresh()) {
+                // Recalcul déjà en cours par une autre requête
+                staleHits.increment();
+                cached.writeTo(req, resp, "STALE", now);
+                return null;
+            }
+        } else {
+            cached = null;
+        }
+
+        misses.increment();
+        return new CachingResponse(resp, this, key, policy, cached, maxEntryBytes);
+    }
+
+    void store(CachingResponse response) {
+        CachedResponse previous = response.getPrevious();
+        if (!response.isStorable()) {
+            release(response);
+            return;
+        }
+        byte[] body = response.toByteArray();
+        CachedResponse entry = new CachedResponse(response.getKey(), HttpServletResponse.SC_OK,
+                new ArrayList<>(response.getCapturedHeaders()), body, System.currentTimeMillis(),
+                response.getPolicy());
+        if (entry.getSize() > maxEntryBytes) {
+            release(response);
+            return;
+        }
+
+        synchronized (this) {
+            CachedResponse replaced = entries.put(entry.getKey(), entry);
+            if (replaced != null) {
+                unlink(replaced);
+            }
+            clock.addLast(entry);
+            bytes += entry.getSize();
+            while (bytes > maxBytes && !clock.isEmpty()) {
+                evictOne();
+            }
+            compact();
+        }
+        if (previous != null) {
+            previous.endRefresh();
+        }
+    }
+
+    void release(CachingResponse response) {
+        if (response.getPrevious() != null) {
+            response.getPrevious().endRefresh();
+        }
+    }
+
+    // Appelé sous le verrou
+    private void evictOne() {
+        CachedResponse candidate = clock.pollFirst();
+        if (candidate.removed) {
+            return;
+        }
+        if (candidate.referenced && !candidate.isDead(System.currentTimeMillis())) {
+            candidate.referenced = false;
+            clock.addLast(candidate);
+            return;
+        }
+        entries.remove(candidate.getKey(), candidate);
+        candidate.removed = true;
+        bytes -= candidate.getSize();
+        evictions.increment();
+    }
+
+    // Appelé sous le verrou : l'entrée reste dans l'anneau, ignorée à son tour
+    private void unlink(CachedResponse entry) {
+        if (!entry.removed) {
+            entry.removed = true;
+            bytes -= entry.getSize();
+        }
+    }
+
+    /**
+     * Supprime les entrées dont la clé commence par prefix ("GET /users",
+     * "GET /users/{id}|id=3"...)
+     *
+     * @return nombre d'entrées supprimées
+     */
+    public synchronized int evict(String prefix) {
+        int removed = 0;
+        for (Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, CachedResponse> entry = it.next();
+            if (entry.getKey().startsWith(prefix)) {
+                it.remove();
+                unlink(entry.getValue());
+                removed++;
+            }
+        }
+        compact();
+        return removed;
+    }
+
+    public synchronized void clear() {
+        for (CachedResponse entry : entries.values()) {
+            unlink(entry);
+        }
+        entries.clear();
+        clock.clear();
+        bytes = 0;
+    }
+
+    // Retire de l'anneau les entrées supprimées quand elles y sont nombreuses
+    private void compact() {
+        if (clock.size() > 2 * entries.size() + 64) {
+            List<CachedResponse> alive = new ArrayList<>(entries.size());
+            for (CachedResponse entry : clock) {
+                if (!entry.removed) {
+                    alive.add(entry);
+                }
+            }
+            clock.clear();
+            clock.addAll(alive);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getStaleHitCount() {
+        return staleHits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache{size=" + size() + ", bytes=" + getBytes() + "/" + maxBytes + ", hits="
+                + getHitCount() + ", stale=" + getStaleHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + "}";
+    }
+}
@@ -0,0 +1,96 @@
+package servlet.config;
+
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Configuration générale du framework chargée depuis framework.properties.
+ * Une propriété système (-Dcle=valeur) du même nom est prioritaire sur le
+ * fichier.
+ */
+public class FrameworkConfig {
+
+    private static final String CONFIG_FILE = "framework.properties";
+
+    private Properties props = new Properties();
+
+    private static FrameworkConfig instance;
+
+    private FrameworkConfig() {
+        loadConfig();
+    }
+
+    public static synchronized FrameworkConfig getInstance() {
+        if (instance == null) {
+            instance = new FrameworkConfig();
+        }
+        return instance;
+    }
+
+    private void loadConfig() {
+        Properties loaded = new Properties();
+
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (input != null) {
+                loaded.load(input);
+                System.out.println("[FrameworkConfig] Fichier " + CONFIG_FILE + " chargé");
+            }
+        } catch (Exception e) {
+            System.err.println("[FrameworkConfig] Erreur lors du chargement: " + e.getMessage());
+        }
+
+        props = loaded;
+    }
+
+    /**
+     * Retourne la valeur d'une propriété, ou la valeur par défaut si absente
+     */
+    public String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = props.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("[FrameworkConfig] Valeur entière invalide pour " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("[FrameworkConfig] Valeur entière invalide pour " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Recharge la configuration (utile pour les tests)
+     */
+    public void reload() {
+        loadConfig();
+    }
+}
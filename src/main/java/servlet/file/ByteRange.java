@@ -0,0 +1,69 @@
+package servlet.file;
+
+/**
+ * Plage d'octets demandée par l'en-tête Range (une seule plage : une demande
+ * de plusieurs plages reçoit le fichier complet, ce que la RFC 9110 permet)
+ */
+final class ByteRange {
+
+    /**
+     * Plage hors du fichier : réponse 416
+     */
+    static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    final long start;
+    final long end; // inclus
+
+    private ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Plage de "bytes=debut-fin", "bytes=debut-" ou "bytes=-suffixe" pour un
+     * fichier de size octets ; null si l'en-tête est ignoré (syntaxe
+     * invalide, plusieurs plages, fichier entier)
+     */
+    static ByteRange parse(String header, long size) {
+        if (!header.regionMatches(true, 0, "bytes=", 0, 6) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        long start;
+        long end;
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1).trim());
+                if (suffix <= 0) {
+                    return suffix == 0 ? UNSATISFIABLE : null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash).trim());
+                String last = spec.substring(dash + 1).trim();
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+                if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start)) {
+                    return null;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (start >= size || size == 0) {
+            return UNSATISFIABLE;
+        }
+        if (start == 0 && end == size - 1) {
+            return null;
+        }
+        return new ByteRange(start, end);
+    }
+}
@@ -0,0 +1,91 @@
+package servlet.file;
+
+import java.nio.file.Path;
+
+/**
+ * Fichier renvoyé par un contrôleur : envoyé sans passer par un byte[]
+ * (sendfile du conteneur si possible), avec Range / 206, Last-Modified et
+ * réponses 304.
+ *
+ * Un contrôleur peut aussi renvoyer directement un Path ou un File.
+ *
+ * <pre>
+ * return FileResponse.of(Paths.get("exports", name)).attachment("rapport.csv");
+ * </pre>
+ */
+public class FileResponse {
+
+    private final Path path;
+    private String contentType;
+    private String fileName;
+    private boolean attachment;
+    private String cacheControl;
+
+    public FileResponse(Path path) {
+        if (path == null) {
+            throw new IllegalArgumentException("Chemin du fichier requis");
+        }
+        this.path = path;
+    }
+
+    public static FileResponse of(Path path) {
+        return new FileResponse(path);
+    }
+
+    /**
+     * Type de contenu ; par défaut déduit de l'extension
+     */
+    public FileResponse contentType(String contentType) {
+        this.contentType = contentType;
+        return this;
+    }
+
+    /**
+     * Téléchargement (Content-Disposition: attachment) sous le nom donné
+     * (null : nom du fichier)
+     */
+    public FileResponse attachment(String fileName) {
+        this.attachment = true;
+        this.fileName = fileName;
+        return this;
+    }
+
+    /**
+     * Affichage dans le navigateur, sous le nom donné
+     */
+    public FileResponse inline(String fileName) {
+        this.attachment = false;
+        this.fileName = fileName;
+        return this;
+    }
+
+    public FileResponse cacheControl(String cacheControl) {
+        this.cacheControl = cacheControl;
+        return this;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public boolean isAttachment() {
+        return attachment;
+    }
+
+    public String getCacheControl() {
+        return cacheControl;
+    }
+
+    @Override
+    public String toString() {
+        return "FileResponse{" + path + (attachment ? ", attachment" : "") + "}";
+    }
+}
@@ -0,0 +1,322 @@
+package servlet.file;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.config.FrameworkConfig;
+import servlet.response.CompressingResponse;
+import servlet.response.ETags;
+
+/**
+ * Envoi d'un fichier (résultat FileResponse / Path / File, ressources
+ * statiques) sans le charger en mémoire.
+ *
+ * Par ordre de préférence :
+ * <ul>
+ * <li>sendfile du conteneur (Tomcat : attribut org.apache.tomcat.sendfile.support) :
+ * le conteneur transmet le fichier par FileChannel.transferTo après le retour
+ * de la servlet, sans copie en espace utilisateur ;</li>
+ * <li>fichier projeté du MappedFileCache (petits fichiers, si activé) ;</li>
+ * <li>lecture par tampons directs réutilisés, copiés vers le flux de la
+ * réponse (l'API Servlet 6.0 n'accepte que des byte[]).</li>
+ * </ul>
+ *
+ * Gère Range (une plage, 206 / 416, If-Range), ETag / If-None-Match et
+ * Last-Modified / If-Modified-Since (304).
+ */
+public class FileSender {
+
+    public static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    public static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    public static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    public static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String DEFAULT_TYPE = "application/octet-stream";
+
+    private final boolean sendfile;
+    private final long sendfileMinBytes;
+    private final int bufferSize;
+    private final BlockingQueue<TransferBuffer> buffers;
+    private final MappedFileCache mappedFiles;
+
+    public FileSender() {
+        FrameworkConfig config = FrameworkConfig.getInstance();
+        this.sendfile = config.getBoolean("framework.file.sendfile", true);
+        this.sendfileMinBytes = config.getLong("framework.file.sendfile.min.bytes", 48 * 1024);
+        this.bufferSize = Math.max(1024, config.getInt("framework.file.buffer.size", 64 * 1024));
+        this.buffers = new ArrayBlockingQueue<>(Math.max(1, config.getInt("framework.file.buffer.pool",
+                Runtime.getRuntime().availableProcessors() * 2)));
+        this.mappedFiles = config.getBoolean("framework.file.mmap", false)
+                ? new MappedFileCache(config.getLong("framework.file.mmap.max.file.bytes", 256 * 1024),
+                        config.getLong("framework.file.mmap.max.bytes", 32L * 1024 * 1024))
+                : null;
+    }
+
+    /**
+     * Tampon direct (lecture du fichier sans tampon temporaire du JDK) et sa
+     * copie vers le flux de la réponse
+     */
+    private static final class TransferBuffer {
+        final ByteBuffer direct;
+        final byte[] heap;
+
+        TransferBuffer(int size) {
+            this.direct = ByteBuffer.allocateDirect(size);
+            this.heap = new byte[size];
+        }
+    }
+
+    /**
+     * Cache des fichiers projetés, ou null s'il est désactivé
+     */
+    public MappedFileCache getMappedFiles() {
+        return mappedFiles;
+    }
+
+    /**
+     * Envoie le fichier, ou une 404 s'il n'existe pas ou n'est pas un fichier
+     */
+    public void send(HttpServletRequest req, HttpServletResponse resp, FileResponse file, ServletContext context,
+            StringBuilder debug) throws IOException {
+        Path path = file.getPath();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            attributes = null;
+        }
+        if (attributes == null || !attributes.isRegularFile() || !Files.isReadable(path)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            resp.setContentType("text/plain;charset=UTF-8");
+            resp.getWriter().println("404 - Fichier introuvable");
+            if (debug != null)
+                debug.append("Réponse       : fichier introuvable ").append(path).append("\n");
+            return;
+        }
+
+        long size = attributes.size();
+        // Last-Modified n'a qu'une précision à la seconde
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+        String etag = ETags.ofFile(lastModified, size);
+        resp.setHeader("Accept-Ranges", "bytes");
+        resp.setHeader("ETag", etag);
+        resp.setDateHeader("Last-Modified", lastModified);
+        if (file.getCacheControl() != null) {
+            resp.setHeader("Cache-Control", file.getCacheControl());
+        }
+
+        if (notModified(req, etag, lastModified)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            if (debug != null)
+                debug.append("Réponse       : 304 fichier non modifié ").append(path).append("\n");
+            return;
+        }
+
+        String contentType = contentType(file, context);
+        resp.setContentType(contentType);
+        if (file.isAttachment() || file.getFileName() != null) {
+            resp.setHeader("Content-Disposition", disposition(file));
+        }
+
+        ByteRange range = null;
+        String rangeHeader = req.getHeader("Range");
+        if (rangeHeader != null && "GET".equals(req.getMethod()) && rangeApplies(req, etag, lastModified)) {
+            range = ByteRange.parse(rangeHeader, size);
+            if (range == ByteRange.UNSATISFIABLE) {
+                resp.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                resp.setHeader("Content-Range", "bytes */" + size);
+                if (debug != null)
+                    debug.append("Réponse       : 416 plage hors du fichier (").append(rangeHeader).append(")\n");
+                return;
+            }
+        }
+        long start = 0;
+        long length = size;
+        if (range != null) {
+            start = range.start;
+            length = range.length();
+            resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            resp.setHeader("Content-Range", "bytes " + range.start + "-" + range.end + "/" + size);
+        }
+
+        // Une plage ou un type non compressible part tel quel : la réponse réelle
+        // reste éligible à sendfile
+        HttpServletResponse target = resp;
+        if (resp instanceof CompressingResponse) {
+            CompressingResponse compressing = (CompressingResponse) resp;
+            if (range != null || !compressing.isCompressible(contentType)) {
+                target = compressing.identity();
+            }
+        }
+        target.setContentLengthLong(length);
+        if ("HEAD".equals(req.getMethod()) || length == 0) {
+            return;
+        }
+
+        String mode;
+        if (canSendfile(req, target, path, length)) {
+            req.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            req.setAttribute(SENDFILE_START, start);
+            req.setAttribute(SENDFILE_END, start + length);
+            mode = "sendfile";
+        } else {
+            ByteBuffer mapped = mappedFiles != null ? mappedFiles.get(path, attributes) : null;
+            if (mapped != null) {
+                mapped.position((int) start).limit((int) (start + length));
+                writeMapped(mapped, target.getOutputStream());
+                mode = "mmap";
+            } else {
+                copy(path, start, length, target.getOutputStream());
+                mode = "tampon direct";
+            }
+        }
+        if (debug != null) {
+            debug.append("Réponse       : fichier ").append(path).append(" (").append(length).append(" octets")
+                    .append(range != null ? ", plage " + range.start + "-" + range.end : "")
+                    .append(", ").append(mode).append(")\n");
+        }
+    }
+
+    /**
+     * If-None-Match prioritaire ; sinon If-Modified-Since (GET / HEAD)
+     */
+    private static boolean notModified(HttpServletRequest req, String etag, long lastModified) {
+        if (!ETags.isConditional(req)) {
+            return false;
+        }
+        if (req.getHeader("If-None-Match") != null) {
+            return ETags.matches(req, etag);
+        }
+        long since = dateHeader(req, "If-Modified-Since");
+        return since >= 0 && lastModified <= since;
+    }
+
+    /**
+     * If-Range : la plage n'est servie que si le fichier est celui connu du
+     * client (ETag fort ou date exacte), sinon il reçoit le fichier entier
+     */
+    private static boolean rangeApplies(HttpServletRequest req, String etag, long lastModified) {
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        return dateHeader(req, "If-Range") == lastModified;
+    }
+
+    private static long dateHeader(HttpServletRequest req, String name) {
+        try {
+            return req.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1; // date illisible : en-tête ignoré
+        }
+    }
+
+    private boolean canSendfile(HttpServletRequest req, HttpServletResponse target, Path path, long length) {
+        return sendfile
+                && length >= sendfileMinBytes
+                && Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORT))
+                // Le conteneur envoie le fichier après le retour de la servlet : ni
+                // traitement asynchrone, ni réponse enveloppée (cache, ETag...)
+                && !req.isAsyncStarted()
+                && !(target instanceof ServletResponseWrapper)
+                && path.getFileSystem() == FileSystems.getDefault();
+    }
+
+    private String contentType(FileResponse file, ServletContext context) throws IOException {
+        if (file.getContentType() != null) {
+            return file.getContentType();
+        }
+        String name = file.getPath().getFileName().toString();
+        String type = context != null ? context.getMimeType(name) : null;
+        if (type == null) {
+            type = Files.probeContentType(file.getPath());
+        }
+        return type != null ? type : DEFAULT_TYPE;
+    }
+
+    /**
+     * Content-Disposition avec un nom ASCII de repli et le nom UTF-8 (RFC 6266)
+     */
+    private static String disposition(FileResponse file) {
+        String name = file.getFileName() != null ? file.getFileName() : file.getPath().getFileName().toString();
+        StringBuilder ascii = new StringBuilder(name.length());
+        StringBuilder encoded = new StringBuilder(name.length() * 3);
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            int c = b & 0xff;
+            boolean plain = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '.' || c == '-' || c == '_';
+            encoded.append(plain ? String.valueOf((char) c) : String.format("%%%02X", c));
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            ascii.append(c >= 0x20 && c < 0x7f && c != '"' && c != '\\' ? c : '_');
+        }
+        return (file.isAttachment() ? "attachment" : "inline") + "; filename=\"" + ascii
+                + "\"; filename*=UTF-8''" + encoded;
+    }
+
+    private void writeMapped(ByteBuffer mapped, OutputStream out) throws IOException {
+        TransferBuffer buffer = acquire();
+        try {
+            byte[] chunk = buffer.heap;
+            while (mapped.hasRemaining()) {
+                int n = Math.min(chunk.length, mapped.remaining());
+                mapped.get(chunk, 0, n);
+                out.write(chunk, 0, n);
+            }
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private void copy(Path path, long start, long length, OutputStream out) throws IOException {
+        TransferBuffer buffer = acquire();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer direct = buffer.direct;
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                direct.clear().limit((int) Math.min(direct.capacity(), end - position));
+                int n = channel.read(direct, position);
+                if (n < 0) {
+                    throw new IOException("Fichier raccourci pendant l'envoi : " + path);
+                }
+                direct.flip();
+                direct.get(buffer.heap, 0, n);
+                out.write(buffer.heap, 0, n);
+                position += n;
+            }
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private TransferBuffer acquire() {
+        TransferBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : new TransferBuffer(bufferSize);
+    }
+
+    private void release(TransferBuffer buffer) {
+        // Réserve pleine : le tampon est laissé au GC
+        buffers.offer(buffer);
+    }
+}
@@ -0,0 +1,116 @@
+package servlet.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Petits fichiers fréquemment servis, projetés en mémoire (mmap) : les
+ * octets restent dans le cache de pages du système, ni lecture ni tampon par
+ * requête. Les moins récemment servis sont retirés au-delà de maxBytes.
+ *
+ * Une entrée est remplacée dès que la date ou la taille du fichier changent.
+ * Un fichier tronqué sur place pendant qu'il est projeté provoque une erreur
+ * à la lecture : le cache convient aux ressources remplacées en bloc
+ * (déploiement), pas aux fichiers réécrits en continu.
+ *
+ * Java ne permet pas de libérer explicitement une projection : la mémoire
+ * d'une entrée retirée est rendue par le GC.
+ */
+public class MappedFileCache {
+
+    private final long maxFileBytes;
+    private final long maxBytes;
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MappedFileCache(long maxFileBytes, long maxBytes) {
+        this.maxFileBytes = maxFileBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    private static final class Entry {
+        final MappedByteBuffer buffer;
+        final long lastModified;
+        final long size;
+
+        Entry(MappedByteBuffer buffer, long lastModified, long size) {
+            this.buffer = buffer;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Contenu projeté du fichier (vue propre à l'appelant), ou null s'il est
+     * trop volumineux pour le cache
+     */
+    public ByteBuffer get(Path path, BasicFileAttributes attributes) throws IOException {
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (size == 0 || size > maxFileBytes) {
+            return null;
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(path);
+        }
+        if (entry != null && entry.lastModified == lastModified && entry.size == size) {
+            hits.increment();
+            return entry.buffer.duplicate();
+        }
+        misses.increment();
+
+        // Projection hors du verrou : l'ouverture du fichier peut être lente
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        synchronized (this) {
+            Entry previous = entries.put(path, new Entry(buffer, lastModified, size));
+            bytes += size - (previous != null ? previous.size : 0);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().size;
+                eldest.remove();
+            }
+        }
+        return buffer.duplicate();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "MappedFileCache{size=" + entries.size() + ", bytes=" + bytes + "/" + maxBytes
+                + ", hits=" + hits.sum() + ", misses=" + misses.sum() + "}";
+    }
+}
@@ -0,0 +1,179 @@
+package servlet.file;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.config.FrameworkConfig;
+
+/**
+ * Ressources statiques servies par le FrontServlet sous un préfixe d'URL
+ * (framework.static.prefix, ex. /static), depuis un répertoire
+ * (framework.static.dir, par défaut le même chemin dans l'application).
+ *
+ * Seuls les fichiers réguliers sous la racine sont servis : segments "." /
+ * "..", fichiers cachés, séparateurs encodés et liens symboliques sortant de
+ * la racine sont refusés. Une URL qui ne désigne pas de fichier est laissée
+ * aux routes (404 si aucune ne correspond).
+ */
+public class StaticResources {
+
+    private final String prefix;
+    private final Path root;
+    private final String cacheControl;
+    private final FileSender sender;
+
+    StaticResources(String prefix, Path root, String cacheControl, FileSender sender) {
+        this.prefix = prefix;
+        this.root = root;
+        this.cacheControl = cacheControl;
+        this.sender = sender;
+    }
+
+    /**
+     * Gestionnaire configuré, ou null si framework.static.prefix est vide ou
+     * si le répertoire n'existe pas
+     */
+    public static StaticResources create(ServletContext context, FileSender sender) {
+        FrameworkConfig config = FrameworkConfig.getInstance();
+        String prefix = config.getString("framework.static.prefix", "").trim();
+        if (prefix.isEmpty()) {
+            return null;
+        }
+        if (!prefix.startsWith("/")) {
+            prefix = "/" + prefix;
+        }
+        if (!prefix.endsWith("/")) {
+            prefix = prefix + "/";
+        }
+
+        String dir = config.getString("framework.static.dir", "");
+        if (dir.isEmpty()) {
+            dir = context.getRealPath(prefix);
+        }
+        Path root;
+        try {
+            root = dir != null ? Paths.get(dir).toRealPath() : null;
+        } catch (IOException | InvalidPathException e) {
+            root = null;
+        }
+        if (root == null || !Files.isDirectory(root)) {
+            System.err.println("[StaticResources] Répertoire introuvable pour " + prefix + " : " + dir);
+            return null;
+        }
+        System.out.println("[StaticResources] " + prefix + " → " + root);
+        return new StaticResources(prefix, root,
+                config.getString("framework.static.cache.control", "no-cache"), sender);
+    }
+
+    public boolean matches(String path) {
+        return path.startsWith(prefix);
+    }
+
+    /**
+     * Fichier désigné par la requête (GET / HEAD sous le préfixe), ou null :
+     * la requête continue alors vers les routes
+     */
+    public Path find(HttpServletRequest req, String path) {
+        String method = req.getMethod();
+        if (!matches(path) || (!"GET".equals(method) && !"HEAD".equals(method))) {
+            return null;
+        }
+        return resolve(path.substring(prefix.length()));
+    }
+
+    public void serve(HttpServletRequest req, HttpServletResponse resp, Path file, ServletContext context,
+            StringBuilder debug) throws IOException {
+        if (debug != null)
+            debug.append("Statique      : ").append(root.relativize(file)).append("\n");
+        sender.send(req, resp, FileResponse.of(file).cacheControl(cacheControl.isEmpty() ? null : cacheControl),
+                context, debug);
+    }
+
+    /**
+     * Fichier régulier sous la racine désigné par le chemin (encodé) de
+     * l'URL, ou null
+     */
+    Path resolve(String encoded) {
+        String relative = decode(encoded);
+        if (relative == null) {
+            return null;
+        }
+        StringBuilder clean = new StringBuilder(relative.length());
+        for (String segment : relative.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.startsWith(".") || segment.indexOf('\\') >= 0 || segment.indexOf(':') >= 0) {
+                return null; // ".", "..", fichier caché, séparateur ou lecteur Windows
+            }
+            if (clean.length() > 0) {
+                clean.append('/');
+            }
+            clean.append(segment);
+        }
+        if (clean.length() == 0) {
+            return null;
+        }
+        try {
+            Path file = root.resolve(clean.toString()).normalize();
+            if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+                return null;
+            }
+            // Lien symbolique : la cible doit aussi être sous la racine
+            return file.toRealPath().startsWith(root) ? file : null;
+        } catch (IOException | InvalidPathException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Décode les %XX (UTF-8) ; null pour un encodage invalide, un octet nul
+     * ou un "/" encodé
+     */
+    private static String decode(String encoded) {
+        if (encoded.indexOf('%') < 0) {
+            return encoded.indexOf('\0') < 0 ? encoded : null;
+        }
+        byte[] bytes = new byte[encoded.length()];
+        int length = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            if (c == '%') {
+                if (i + 2 >= encoded.length()) {
+                    return null;
+                }
+                int high = Character.digit(encoded.charAt(i + 1), 16);
+                int low = Character.digit(encoded.charAt(i + 2), 16);
+                if (high < 0 || low < 0) {
+                    return null;
+                }
+                int b = (high << 4) | low;
+                if (b == 0 || b == '/') {
+                    return null;
+                }
+                bytes[length++] = (byte) b;
+                i += 2;
+            } else if (c > 0x7f) {
+                return null; // l'URI brute n'est qu'en ASCII
+            } else {
+                bytes[length++] = (byte) c;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+}
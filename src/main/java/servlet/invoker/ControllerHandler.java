@@ -0,0 +1,14 @@
+package servlet.invoker;
+
+/**
+ * Appel spécialisé d'une méthode de contrôleur, généré une fois par route
+ */
+@FunctionalInterface
+public interface ControllerHandler {
+
+    /**
+     * @param controller l'instance du contrôleur (ignorée pour une méthode static)
+     * @param args       les arguments résolus, dans l'ordre des paramètres
+     */
+    Object invoke(Object controller, Object[] args) throws Throwable;
+}
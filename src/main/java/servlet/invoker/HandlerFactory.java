@@ -0,0 +1,190 @@
+package servlet.invoker;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import servlet.config.FrameworkConfig;
+
+/**
+ * Génère le ControllerHandler d'une méthode de contrôleur.
+ *
+ * Trois modes, choisis par framework.invoker :
+ * - lambda (défaut) : classe générée par LambdaMetafactory qui appelle
+ *   directement la méthode (appel que le JIT peut inliner) ;
+ * - methodhandle : MethodHandle adapté en (Object, Object[]) → Object ;
+ * - reflection : Method.invoke, utile pour déboguer.
+ * Si un mode échoue pour une méthode, on se replie sur le suivant.
+ */
+public class HandlerFactory {
+
+    public static final String MODE_LAMBDA = "lambda";
+    public static final String MODE_METHOD_HANDLE = "methodhandle";
+    public static final String MODE_REFLECTION = "reflection";
+
+    // Signatures des interfaces Arity* ci-dessous (index = nombre d'arguments)
+    private static final Class<?>[] ARITY_INTERFACES = {
+            Arity0.class, Arity1.class, Arity2.class, Arity3.class, Arity4.class, Arity5.class
+    };
+
+    public static String getMode() {
+        return FrameworkConfig.getInstance().getString("framework.invoker", MODE_LAMBDA).toLowerCase();
+    }
+
+    public static ControllerHandler create(Method method) {
+        String mode = getMode();
+
+        if (MODE_LAMBDA.equals(mode)) {
+            try {
+                ControllerHandler handler = lambda(method);
+                if (handler != null) {
+                    return handler;
+                }
+            } catch (Throwable e) {
+                System.err.println("[HandlerFactory] LambdaMetafactory indisponible pour "
+                        + describe(method) + " : " + e + " → MethodHandle");
+            }
+            mode = MODE_METHOD_HANDLE;
+        }
+
+        if (MODE_METHOD_HANDLE.equals(mode)) {
+            try {
+                return methodHandle(method);
+            } catch (Throwable e) {
+                System.err.println("[HandlerFactory] MethodHandle indisponible pour "
+                        + describe(method) + " : " + e + " → réflexion");
+            }
+        }
+
+        return reflection(method);
+    }
+
+    // ===================== MODES =====================
+
+    /**
+     * Méthode d'instance, non void, jusqu'à 5 paramètres : sinon null (le
+     * mode MethodHandle prend le relais)
+     */
+    private static ControllerHandler lambda(Method method) throws Throwable {
+        int arity = method.getParameterCount();
+        if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class
+                || arity >= ARITY_INTERFACES.length) {
+            return null;
+        }
+
+        Class<?> controllerClass = method.getDeclaringClass();
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(controllerClass, MethodHandles.lookup());
+        MethodHandle target = lookup.unreflect(method);
+
+        Class<?> fnInterface = ARITY_INTERFACES[arity];
+        MethodType samType = MethodType.genericMethodType(arity + 1);
+
+        // Type instancié : receveur concret, paramètres primitifs "boxés"
+        MethodType instantiated = target.type().wrap().changeReturnType(Object.class)
+                .changeParameterType(0, controllerClass);
+
+        CallSite site = LambdaMetafactory.metafactory(lookup, "call",
+                MethodType.methodType(fnInterface), samType, target, instantiated);
+        Object fn = site.getTarget().invoke();
+
+        switch (arity) {
+            case 0: {
+                Arity0 f = (Arity0) fn;
+                return (c, a) -> f.call(c);
+            }
+            case 1: {
+                Arity1 f = (Arity1) fn;
+                return (c, a) -> f.call(c, a[0]);
+            }
+            case 2: {
+                Arity2 f = (Arity2) fn;
+                return (c, a) -> f.call(c, a[0], a[1]);
+            }
+            case 3: {
+                Arity3 f = (Arity3) fn;
+                return (c, a) -> f.call(c, a[0], a[1], a[2]);
+            }
+            case 4: {
+                Arity4 f = (Arity4) fn;
+                return (c, a) -> f.call(c, a[0], a[1], a[2], a[3]);
+            }
+            default: {
+                Arity5 f = (Arity5) fn;
+                return (c, a) -> f.call(c, a[0], a[1], a[2], a[3], a[4]);
+            }
+        }
+    }
+
+    private static ControllerHandler methodHandle(Method method) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(),
+                MethodHandles.lookup());
+        MethodHandle target = lookup.unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+        int arity = method.getParameterCount();
+        MethodHandle spread = target.asType(MethodType.genericMethodType(arity + 1))
+                .asSpreader(Object[].class, arity);
+        return new MethodHandleHandler(spread);
+    }
+
+    private static ControllerHandler reflection(Method method) {
+        method.setAccessible(true);
+        return (controller, args) -> {
+            try {
+                return method.invoke(controller, args);
+            } catch (InvocationTargetException e) {
+                // même comportement que les autres modes : l'exception du contrôleur est propagée telle quelle
+                throw e.getCause();
+            }
+        };
+    }
+
+    private static String describe(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    // ===================== INTERFACES GÉNÉRÉES =====================
+
+    private static final class MethodHandleHandler implements ControllerHandler {
+        private final MethodHandle handle;
+
+        MethodHandleHandler(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object controller, Object[] args) throws Throwable {
+            return (Object) handle.invokeExact(controller, args);
+        }
+    }
+
+    public interface Arity0 {
+        Object call(Object c);
+    }
+
+    public interface Arity1 {
+        Object call(Object c, Object a0);
+    }
+
+    public interface Arity2 {
+        Object call(Object c, Object a0, Object a1);
+    }
+
+    public interface Arity3 {
+        Object call(Object c, Object a0, Object a1, Object a2);
+    }
+
+    public interface Arity4 {
+        Object call(Object c, Object a0, Object a1, Object a2, Object a3);
+    }
+
+    public interface Arity5 {
+        Object call(Object c, Object a0, Object a1, Object a2, Object a3, Object a4);
+    }
+}
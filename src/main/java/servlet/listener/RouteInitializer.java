@@ -3,10 +3,18 @@ package servlet.listener;
 import java.util.List;
 
 import servlet.annotations.Controller;
+import servlet.binding.ArgumentResolver;
 import servlet.annotations.mapping.RequestMapping;
+import servlet.config.FrameworkConfig;
+import servlet.invoker.HandlerFactory;
+import servlet.processor.RouteIndex;
+import servlet.scope.ControllerProviders;
 import servlet.utils.ClassDetector;
+import servlet.utils.LazyMethodInvoker;
 import servlet.utils.MethodInvoker;
+import servlet.utils.RouteTrie;
 import servlet.utils.UrlRouter;
+import servlet.warmup.Warmup;
 import jakarta.servlet.*;
 import jakarta.servlet.annotation.WebListener;
 
@@ -18,40 +26,110 @@ public class RouteInitializer implements ServletContextListener {
         try {
             ServletContext context = sce.getServletContext();
             UrlRouter routes = new UrlRouter();
+            ArgumentResolver argumentResolver = new ArgumentResolver();
+            FrameworkConfig config = FrameworkConfig.getInstance();
+
+            // Parcours complet du classpath par défaut. L'index généré à la
+            // compilation (RouteIndexProcessor) n'est utilisé que sur demande
+            // (framework.routes.source=index) : il ne contient que les
+            // contrôleurs compilés avec le processeur, lors de la dernière
+            // passe de javac (une compilation incrémentale l'ampute)
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            boolean useIndex = "index".equalsIgnoreCase(config.getString("framework.routes.source", "scan"));
+            List<RouteIndex.Entry> index = useIndex ? RouteIndex.load(loader) : List.of();
+
+            if (useIndex && index.isEmpty()) {
+                System.err.println("[RouteInitializer] framework.routes.source=index mais aucun index "
+                        + RouteIndex.RESOURCE + " : parcours du classpath");
+            }
+            if (!index.isEmpty()) {
+                registerFromIndex(index, loader, routes, argumentResolver,
+                        config.getBoolean("framework.routes.lazy", true));
+            } else {
+                registerFromClasspath(routes, argumentResolver);
+            }
+
+            // Construire l'arbre de recherche une seule fois, avant la première requête
+            routes.compile();
 
-            List<Class<?>> classes = ClassDetector.getAllClassesFromClasspath();
-            
+            context.setAttribute("routes", routes);
+
+            // Warm-up optionnel : tout préparer avant d'annoncer l'application prête
+            if (Warmup.isEnabled()) {
+                Warmup warmup = new Warmup(routes);
+                warmup.prepareRoutes(argumentResolver);
+                context.setAttribute(Warmup.CONTEXT_ATTRIBUTE, warmup);
+            }
 
-            for (Class<?> controllerClass : classes) {
+            System.out.println("✅ Routes enregistrées (" + routes.size() + " URLs uniques, invocation : "
+                    + HandlerFactory.getMode() + ")");
+            if (routes.getCache().isEnabled()) {
+                System.out.println("   Cache des URLs activé : " + routes.getCache());
+            }
 
-                if (controllerClass.isAnnotationPresent(Controller.class)) {
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
 
-                    for (var method : controllerClass.getDeclaredMethods()) {
+    private void registerFromClasspath(UrlRouter routes, ArgumentResolver argumentResolver) throws Exception {
+        List<Class<?>> classes = ClassDetector.getAllClassesFromClasspath();
 
-                        RequestMapping mapping = getRequestMapping(method);
+        for (Class<?> controllerClass : classes) {
 
-                        if (mapping != null) {
-                            String urlPattern = mapping.value();
-                            String httpMethod = mapping.method().name();
+            if (controllerClass.isAnnotationPresent(Controller.class)) {
 
-                            MethodInvoker invoker = new MethodInvoker(controllerClass, method);
-                            routes.addRoute(urlPattern, httpMethod, invoker);
+                for (var method : controllerClass.getDeclaredMethods()) {
 
-                            System.out.println(" Route ajoutée : [" + httpMethod + "] " + urlPattern
-                                    + "  → " + controllerClass.getSimpleName() + "." + method.getName());
-                        }
+                    RequestMapping mapping = getRequestMapping(method);
+
+                    if (mapping != null) {
+                        String urlPattern = mapping.value();
+                        String httpMethod = mapping.method().name();
+
+                        MethodInvoker invoker = new MethodInvoker(controllerClass, method,
+                                ControllerProviders.get(controllerClass));
+                        prepare(invoker, urlPattern, argumentResolver);
+                        routes.addRoute(urlPattern, httpMethod, invoker);
+
+                        System.out.println(" Route ajoutée : [" + httpMethod + "] " + urlPattern
+                                + "  → " + controllerClass.getSimpleName() + "." + method.getName());
                     }
                 }
             }
+        }
+    }
 
-            context.setAttribute("routes", routes);
-            System.out.println("✅ Routes enregistrées (" + routes.size() + " URLs uniques)");
+    /**
+     * Enregistre les routes de l'index sans charger les contrôleurs (lazy) :
+     * chaque classe est chargée et sa route préparée à la première requête.
+     */
+    private void registerFromIndex(List<RouteIndex.Entry> index, ClassLoader loader, UrlRouter routes,
+            ArgumentResolver argumentResolver, boolean lazy) {
+        System.out.println("[RouteInitializer] Index des routes trouvé (" + index.size() + " routes"
+                + (lazy ? ", chargement à la demande" : "") + ")");
+
+        for (RouteIndex.Entry entry : index) {
+            MethodInvoker invoker = new LazyMethodInvoker(entry, loader);
+            if (!lazy) {
+                prepare(invoker, entry.getUrlPattern(), argumentResolver);
+            }
+            routes.addRoute(entry.getUrlPattern(), entry.getHttpMethod(), invoker);
 
-        } catch (Exception e) {
-            e.printStackTrace();
+            System.out.println(" Route ajoutée : [" + entry.getHttpMethod() + "] " + entry.getUrlPattern()
+                    + "  → " + entry.getClassName() + "." + entry.getMethodName());
         }
     }
 
+    /**
+     * Compilation d'une route : contrôleur, appel généré, sécurité, plan de binding
+     */
+    private void prepare(MethodInvoker invoker, String urlPattern, ArgumentResolver argumentResolver) {
+        invoker.prepare();
+        invoker.setBindingPlan(argumentResolver.compile(invoker.getMethod(),
+                RouteTrie.paramNames(urlPattern), invoker.getParameterNames()));
+    }
+
     // Méthode helper pour récupérer @RequestMapping (direct ou via
     // méta-annotation)
     private RequestMapping getRequestMapping(java.lang.reflect.Method method) {
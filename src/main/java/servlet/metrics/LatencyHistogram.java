@@ -0,0 +1,169 @@
+package servlet.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Histogramme de latences sans verrou, à buckets log-linéaires (même principe
+ * que HdrHistogram) : chaque puissance de 2 est découpée en 8 sous-buckets,
+ * soit une erreur relative d'au plus 12,5 %. Les valeurs sont enregistrées en
+ * microsecondes, jusqu'à 2^35 µs (~9 h) ; au-delà elles tombent dans le
+ * dernier bucket.
+ *
+ * Pour éviter que tous les threads incrémentent les mêmes compteurs,
+ * l'histogramme est réparti en bandes (une par coeur, arrondi à la puissance
+ * de 2) choisies d'après le thread ; les bandes ne sont allouées qu'à leur
+ * première utilisation et additionnées à la lecture.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 34;
+
+    static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    // Deux cases en fin de bande : nombre de valeurs et somme (µs)
+    private static final int COUNT = BUCKETS;
+    private static final int SUM = BUCKETS + 1;
+
+    private static final int STRIPES = stripeCount();
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    private static int stripeCount() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int n = 1;
+        while (n < cpus && n < 64) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    public void recordNanos(long nanos) {
+        record(nanos / 1000);
+    }
+
+    /**
+     * Enregistre une durée en microsecondes
+     */
+    public void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+        AtomicLongArray stripe = stripe();
+        stripe.incrementAndGet(bucketIndex(micros));
+        stripe.incrementAndGet(COUNT);
+        stripe.addAndGet(SUM, micros);
+    }
+
+    private AtomicLongArray stripe() {
+        // Le numéro du coeur n'est pas accessible en Java : l'identifiant du
+        // thread, mélangé, répartit les threads du pool entre les bandes
+        @SuppressWarnings("deprecation")
+        int index = (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 40) & (STRIPES - 1);
+        AtomicLongArray stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(BUCKETS + 2));
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int mantissa = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * Borne supérieure (exclue, en µs) du bucket
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index + 1;
+        }
+        int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int mantissa = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + mantissa + 1) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Copie cohérente (à quelques enregistrements concurrents près) de toutes
+     * les bandes additionnées
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray stripe = stripes.get(s);
+            if (stripe == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+            count += stripe.get(COUNT);
+            sum += stripe.get(SUM);
+        }
+        return new Snapshot(counts, count, sum);
+    }
+
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sumMicros;
+
+        Snapshot(long[] counts, long count, long sumMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.sumMicros = sumMicros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSumMicros() {
+            return sumMicros;
+        }
+
+        /**
+         * Nombre de valeurs strictement inférieures à la borne (µs). Exact
+         * quand la borne est une limite de bucket (puissance de 2 notamment).
+         */
+        public long countBelow(long boundMicros) {
+            long total = 0;
+            for (int i = 0; i < counts.length && bucketUpperBound(i) <= boundMicros; i++) {
+                total += counts[i];
+            }
+            return total;
+        }
+
+        /**
+         * Valeur (µs) sous laquelle se trouve le pourcentage donné des valeurs
+         * (borne supérieure du bucket correspondant)
+         */
+        public long percentile(double percent) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(count * percent / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return bucketUpperBound(i);
+                }
+            }
+            return bucketUpperBound(counts.length - 1);
+        }
+    }
+}
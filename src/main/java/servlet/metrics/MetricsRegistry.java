@@ -0,0 +1,206 @@
+package servlet.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import servlet.async.BulkheadLimiter;
+import servlet.async.PinningMonitor;
+import servlet.cache.ResponseCache;
+import servlet.config.FrameworkConfig;
+import servlet.utils.RegisteredRoute;
+import servlet.utils.UrlRouter;
+
+/**
+ * Accès aux métriques de toutes les routes de UrlRouter (chaque
+ * RegisteredRoute porte ses RouteMetrics) et export au format texte de
+ * Prometheus.
+ *
+ * framework.metrics.enabled (true par défaut) active l'enregistrement ;
+ * framework.metrics.endpoint=true expose l'export sur framework.metrics.path
+ * (/_metrics par défaut).
+ */
+public class MetricsRegistry {
+
+    // Bornes exportées : puissances de 2 de 16 µs à ~33 s (limites exactes de buckets)
+    private static final int MIN_EXPONENT = 4;
+    private static final int MAX_EXPONENT = 25;
+    private static final String[] LE_LABELS = new String[MAX_EXPONENT - MIN_EXPONENT + 1];
+
+    static {
+        for (int e = MIN_EXPONENT; e <= MAX_EXPONENT; e++) {
+            LE_LABELS[e - MIN_EXPONENT] = BigDecimal.valueOf(1L << e).movePointLeft(6).toPlainString();
+        }
+    }
+
+    private final UrlRouter routes;
+    private final RouteMetrics unmatched = new RouteMetrics("*", "unmatched");
+    private final boolean enabled;
+    private final String path;
+    private volatile PinningMonitor pinning;
+
+    public MetricsRegistry(UrlRouter routes) {
+        FrameworkConfig config = FrameworkConfig.getInstance();
+        this.routes = routes;
+        this.enabled = config.getBoolean("framework.metrics.enabled", true);
+        this.path = config.getBoolean("framework.metrics.endpoint", false)
+                ? config.getString("framework.metrics.path", "/_metrics")
+                : "";
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isMetricsPath(String requestPath) {
+        return !path.isEmpty() && path.equals(requestPath);
+    }
+
+    /**
+     * Chronomètre pour une requête, ou null si les métriques sont désactivées
+     */
+    public RequestTimer startTimer() {
+        return enabled ? new RequestTimer() : null;
+    }
+
+    /**
+     * Suivi des épinglages de threads virtuels, exporté s'il est actif
+     */
+    public void setPinningMonitor(PinningMonitor pinning) {
+        this.pinning = pinning;
+    }
+
+    /**
+     * Requêtes sans route (404 / 405)
+     */
+    public RouteMetrics getUnmatched() {
+        return unmatched;
+    }
+
+    public List<RouteMetrics> getRouteMetrics() {
+        List<RouteMetrics> all = new ArrayList<>();
+        for (List<RegisteredRoute> registered : routes.values()) {
+            for (RegisteredRoute route : registered) {
+                all.add(route.getMetrics());
+            }
+        }
+        all.sort(Comparator.comparing(RouteMetrics::getRoute).thenComparing(RouteMetrics::getHttpMethod));
+        return all;
+    }
+
+    // ===================== EXPORT PROMETHEUS =====================
+
+    public void writePrometheus(Writer out) throws IOException {
+        List<RouteMetrics> all = getRouteMetrics();
+        all.add(unmatched);
+
+        out.write("# HELP framework_requests_total Requêtes traitées par route\n");
+        out.write("# TYPE framework_requests_total counter\n");
+        for (RouteMetrics m : all) {
+            out.write("framework_requests_total" + labels(m, null) + " " + m.getRequests() + "\n");
+        }
+
+        out.write("# HELP framework_errors_total Réponses en erreur (statut >= 400) par route\n");
+        out.write("# TYPE framework_errors_total counter\n");
+        for (RouteMetrics m : all) {
+            out.write("framework_errors_total" + labels(m, null) + " " + m.getErrors() + "\n");
+        }
+
+        out.write("# HELP framework_responses_total Réponses par route et par statut HTTP\n");
+        out.write("# TYPE framework_responses_total counter\n");
+        for (RouteMetrics m : all) {
+            for (Map.Entry<Integer, Long> entry : m.getStatusCounts().entrySet()) {
+                out.write("framework_responses_total" + labels(m, "status=\"" + entry.getKey() + "\"")
+                        + " " + entry.getValue() + "\n");
+            }
+        }
+
+        out.write("# HELP framework_request_duration_seconds Durée des requêtes par route et par étape\n");
+        out.write("# TYPE framework_request_duration_seconds histogram\n");
+        for (RouteMetrics m : all) {
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram.Snapshot snapshot = m.getLatency(phase).snapshot();
+                if (snapshot.getCount() == 0) {
+                    continue;
+                }
+                String phaseLabel = "phase=\"" + phase.getLabel() + "\"";
+                for (int e = MIN_EXPONENT; e <= MAX_EXPONENT; e++) {
+                    out.write("framework_request_duration_seconds_bucket"
+                            + labels(m, phaseLabel + ",le=\"" + LE_LABELS[e - MIN_EXPONENT] + "\"")
+                            + " " + snapshot.countBelow(1L << e) + "\n");
+                }
+                out.write("framework_request_duration_seconds_bucket" + labels(m, phaseLabel + ",le=\"+Inf\"")
+                        + " " + snapshot.getCount() + "\n");
+                out.write("framework_request_duration_seconds_sum" + labels(m, phaseLabel) + " "
+                        + BigDecimal.valueOf(snapshot.getSumMicros()).movePointLeft(6).toPlainString() + "\n");
+                out.write("framework_request_duration_seconds_count" + labels(m, phaseLabel) + " "
+                        + snapshot.getCount() + "\n");
+            }
+        }
+
+        ResponseCache cache = ResponseCache.getInstance();
+        if (cache.getMissCount() > 0) {
+            out.write("# HELP framework_response_cache_requests_total Requêtes @Cacheable par résultat\n");
+            out.write("# TYPE framework_response_cache_requests_total counter\n");
+            out.write("framework_response_cache_requests_total{result=\"hit\"} " + cache.getHitCount() + "\n");
+            out.write("framework_response_cache_requests_total{result=\"stale\"} " + cache.getStaleHitCount() + "\n");
+            out.write("framework_response_cache_requests_total{result=\"miss\"} " + cache.getMissCount() + "\n");
+            out.write("# HELP framework_response_cache_evictions_total Entrées évincées (mémoire)\n");
+            out.write("# TYPE framework_response_cache_evictions_total counter\n");
+            out.write("framework_response_cache_evictions_total " + cache.getEvictionCount() + "\n");
+            out.write("# HELP framework_response_cache_bytes Mémoire estimée des réponses conservées\n");
+            out.write("# TYPE framework_response_cache_bytes gauge\n");
+            out.write("framework_response_cache_bytes " + cache.getBytes() + "\n");
+        }
+
+        List<BulkheadLimiter> bulkheads = BulkheadLimiter.all();
+        if (!bulkheads.isEmpty()) {
+            out.write("# HELP framework_bulkhead_in_use Appels en cours par limite @Bulkhead\n");
+            out.write("# TYPE framework_bulkhead_in_use gauge\n");
+            for (BulkheadLimiter b : bulkheads) {
+                out.write("framework_bulkhead_in_use{bulkhead=\"" + escape(b.getName()) + "\"} "
+                        + b.getInUse() + "\n");
+            }
+            out.write("# HELP framework_bulkhead_rejected_total Appels refusés (limite @Bulkhead atteinte)\n");
+            out.write("# TYPE framework_bulkhead_rejected_total counter\n");
+            for (BulkheadLimiter b : bulkheads) {
+                out.write("framework_bulkhead_rejected_total{bulkhead=\"" + escape(b.getName()) + "\"} "
+                        + b.getRejected() + "\n");
+            }
+        }
+
+        PinningMonitor monitor = pinning;
+        if (monitor != null) {
+            out.write("# HELP framework_virtual_thread_pinned_total Épinglages de threads virtuels par emplacement\n");
+            out.write("# TYPE framework_virtual_thread_pinned_total counter\n");
+            for (Map.Entry<String, ? extends Number> entry : monitor.getLocations().entrySet()) {
+                out.write("framework_virtual_thread_pinned_total{location=\"" + escape(entry.getKey()) + "\"} "
+                        + entry.getValue().longValue() + "\n");
+            }
+            out.write("# HELP framework_virtual_thread_pinned_seconds_total Durée cumulée des épinglages\n");
+            out.write("# TYPE framework_virtual_thread_pinned_seconds_total counter\n");
+            out.write("framework_virtual_thread_pinned_seconds_total "
+                    + BigDecimal.valueOf(monitor.getPinnedMicros()).movePointLeft(6).toPlainString() + "\n");
+        }
+    }
+
+    private static String labels(RouteMetrics m, String extra) {
+        StringBuilder sb = new StringBuilder("{method=\"").append(escape(m.getHttpMethod()))
+                .append("\",route=\"").append(escape(m.getRoute())).append('"');
+        if (extra != null) {
+            sb.append(',').append(extra);
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,23 @@
+package servlet.metrics;
+
+/**
+ * Étapes du traitement d'une requête mesurées séparément
+ */
+public enum Phase {
+    ROUTING("routing"),
+    SECURITY("security"),
+    BINDING("binding"),
+    INVOCATION("invocation"),
+    RENDERING("rendering"),
+    TOTAL("total");
+
+    private final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,41 @@
+package servlet.metrics;
+
+/**
+ * Chronomètre d'une requête : FrontServlet marque la fin de chaque étape et
+ * la durée écoulée depuis la marque précédente est attribuée à cette étape.
+ */
+public class RequestTimer {
+
+    private final long start;
+    private long last;
+    private RouteMetrics route;
+
+    public RequestTimer() {
+        this.start = System.nanoTime();
+        this.last = start;
+    }
+
+    /**
+     * Route trouvée : les étapes suivantes lui sont attribuées
+     */
+    public void route(RouteMetrics route) {
+        this.route = route;
+    }
+
+    public void phase(Phase phase) {
+        long now = System.nanoTime();
+        if (route != null) {
+            route.record(phase, now - last);
+        }
+        last = now;
+    }
+
+    /**
+     * Requête terminée ; sans route trouvée (404/405), elle est comptée dans
+     * les métriques des requêtes non routées
+     */
+    public void finish(MetricsRegistry registry, int status) {
+        RouteMetrics target = route != null ? route : registry.getUnmatched();
+        target.complete(status, System.nanoTime() - start);
+    }
+}
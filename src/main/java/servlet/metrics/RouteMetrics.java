@@ -0,0 +1,78 @@
+package servlet.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs et histogrammes d'une route : nombre de requêtes, réponses par
+ * statut (dont les 401/403 levés par SecurityChecker) et latence par étape.
+ */
+public class RouteMetrics {
+
+    private final String httpMethod;
+    private final String route;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final EnumMap<Phase, LatencyHistogram> latencies = new EnumMap<>(Phase.class);
+
+    public RouteMetrics(String httpMethod, String route) {
+        this.httpMethod = httpMethod;
+        this.route = route;
+        for (Phase phase : Phase.values()) {
+            latencies.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public void record(Phase phase, long nanos) {
+        latencies.get(phase).recordNanos(nanos);
+    }
+
+    /**
+     * Fin de la requête : statut de la réponse et durée totale
+     */
+    public void complete(int status, long totalNanos) {
+        requests.increment();
+        if (status >= 400) {
+            errors.increment();
+        }
+        LongAdder counter = statuses.get(status);
+        if (counter == null) {
+            counter = statuses.computeIfAbsent(status, s -> new LongAdder());
+        }
+        counter.increment();
+        latencies.get(Phase.TOTAL).recordNanos(totalNanos);
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Réponses par statut HTTP, triées par statut
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, counter) -> counts.put(status, counter.sum()));
+        return counts;
+    }
+
+    public LatencyHistogram getLatency(Phase phase) {
+        return latencies.get(phase);
+    }
+}
@@ -0,0 +1,151 @@
+package servlet.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Index des routes généré à la compilation par RouteIndexProcessor.
+ *
+ * Une ligne par route, champs séparés par des tabulations :
+ * méthode HTTP, pattern, classe du contrôleur, méthode, types des paramètres,
+ * noms des paramètres (ex: GET /users/{id} app.UserController show int id).
+ */
+public class RouteIndex {
+
+    public static final String RESOURCE = "META-INF/framework/routes.idx";
+    public static final String HEADER = "# framework route index v1";
+
+    /**
+     * Une route de l'index
+     */
+    public static class Entry {
+        private final String httpMethod;
+        private final String urlPattern;
+        private final String className;
+        private final String methodName;
+        private final String[] parameterTypes;
+        private final String[] parameterNames;
+
+        public Entry(String httpMethod, String urlPattern, String className, String methodName,
+                String[] parameterTypes, String[] parameterNames) {
+            this.httpMethod = httpMethod;
+            this.urlPattern = urlPattern;
+            this.className = className;
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes;
+            this.parameterNames = parameterNames;
+        }
+
+        public String getHttpMethod() {
+            return httpMethod;
+        }
+
+        public String getUrlPattern() {
+            return urlPattern;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+
+        public String[] getParameterTypes() {
+            return parameterTypes;
+        }
+
+        public String[] getParameterNames() {
+            return parameterNames;
+        }
+
+        /**
+         * Charge la classe du contrôleur et retrouve la méthode
+         */
+        public Method resolve(ClassLoader loader) throws ClassNotFoundException, NoSuchMethodException {
+            Class<?> controllerClass = Class.forName(className, false, loader);
+            Class<?>[] types = new Class<?>[parameterTypes.length];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = typeOf(parameterTypes[i], loader);
+            }
+            return controllerClass.getDeclaredMethod(methodName, types);
+        }
+
+        public String toLine() {
+            return httpMethod + "\t" + urlPattern + "\t" + className + "\t" + methodName + "\t"
+                    + String.join(",", parameterTypes) + "\t" + String.join(",", parameterNames);
+        }
+
+        static Entry parse(String line) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 6) {
+                throw new IllegalArgumentException("Ligne d'index invalide : " + line);
+            }
+            return new Entry(fields[0], fields[1], fields[2], fields[3], split(fields[4]), split(fields[5]));
+        }
+
+        private static String[] split(String list) {
+            return list.isEmpty() ? new String[0] : list.split(",");
+        }
+    }
+
+    /**
+     * Lit tous les index présents sur le classpath (un par jar / dossier de classes)
+     */
+    public static List<Entry> load(ClassLoader loader) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        Enumeration<URL> resources = loader.getResources(RESOURCE);
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            int before = entries.size();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank() && !line.startsWith("#")) {
+                        entries.add(Entry.parse(line));
+                    }
+                }
+            }
+            System.out.println("[RouteIndex] Index chargé : " + url + " (" + (entries.size() - before)
+                    + " routes)");
+        }
+        return entries;
+    }
+
+    /**
+     * Convertit un type de l'index ("int", "java.lang.String", "app.Item[]") en Class
+     */
+    static Class<?> typeOf(String name, ClassLoader loader) throws ClassNotFoundException {
+        int dimensions = 0;
+        while (name.endsWith("[]")) {
+            name = name.substring(0, name.length() - 2);
+            dimensions++;
+        }
+        Class<?> type;
+        switch (name) {
+            case "boolean": type = boolean.class; break;
+            case "byte": type = byte.class; break;
+            case "char": type = char.class; break;
+            case "short": type = short.class; break;
+            case "int": type = int.class; break;
+            case "long": type = long.class; break;
+            case "float": type = float.class; break;
+            case "double": type = double.class; break;
+            default: type = Class.forName(name, false, loader);
+        }
+        for (int i = 0; i < dimensions; i++) {
+            type = Array.newInstance(type, 0).getClass();
+        }
+        return type;
+    }
+}
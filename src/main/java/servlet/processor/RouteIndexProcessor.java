@@ -0,0 +1,176 @@
+package servlet.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Génère l'index des routes (META-INF/framework/routes.idx) à la compilation
+ * des contrôleurs, pour que RouteInitializer n'ait pas à parcourir tout le
+ * classpath au démarrage. Utilisé seulement avec framework.routes.source=index :
+ * l'index ne couvre que les contrôleurs de la passe de compilation courante,
+ * il doit donc être produit par une compilation complète.
+ *
+ * Enregistré dans META-INF/services : javac l'exécute automatiquement quand le
+ * jar du framework est sur le classpath de compilation (avec JDK 23+, ajouter
+ * -proc:full ou -processor servlet.processor.RouteIndexProcessor).
+ */
+@SupportedAnnotationTypes(RouteIndexProcessor.CONTROLLER)
+public class RouteIndexProcessor extends AbstractProcessor {
+
+    static final String CONTROLLER = "servlet.annotations.Controller";
+    static final String REQUEST_MAPPING = "servlet.annotations.mapping.RequestMapping";
+
+    private final List<RouteIndex.Entry> entries = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement controller = processingEnv.getElementUtils().getTypeElement(CONTROLLER);
+        if (controller != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(controller)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    collect((TypeElement) element);
+                }
+            }
+        }
+
+        if (roundEnv.processingOver() && !entries.isEmpty()) {
+            write();
+        }
+        return false;
+    }
+
+    private void collect(TypeElement controllerType) {
+        String className = processingEnv.getElementUtils().getBinaryName(controllerType).toString();
+
+        for (Element member : controllerType.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) member;
+            String[] mapping = findMapping(method);
+            if (mapping == null) {
+                continue;
+            }
+
+            List<? extends VariableElement> params = method.getParameters();
+            String[] types = new String[params.size()];
+            String[] names = new String[params.size()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = typeName(params.get(i).asType());
+                names[i] = params.get(i).getSimpleName().toString();
+            }
+
+            entries.add(new RouteIndex.Entry(mapping[1], mapping[0], className,
+                    method.getSimpleName().toString(), types, names));
+        }
+    }
+
+    /**
+     * Même règle que RouteInitializer.getRequestMapping : @RequestMapping direct,
+     * sinon la première annotation méta-annotée par @RequestMapping.
+     *
+     * @return [url, méthode HTTP] ou null
+     */
+    private String[] findMapping(ExecutableElement method) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(REQUEST_MAPPING)) {
+                return new String[] { stringValue(annotation, "value"), stringValue(annotation, "method") };
+            }
+        }
+
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+            for (AnnotationMirror meta : type.getAnnotationMirrors()) {
+                TypeElement metaType = (TypeElement) meta.getAnnotationType().asElement();
+                if (metaType.getQualifiedName().contentEquals(REQUEST_MAPPING)) {
+                    String url = stringValue(annotation, "value");
+                    if (url.isEmpty()) {
+                        url = stringValue(meta, "value");
+                    }
+                    return new String[] { url, stringValue(meta, "method") };
+                }
+            }
+        }
+        return null;
+    }
+
+    private String stringValue(AnnotationMirror annotation, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils()
+                .getElementValuesWithDefaults(annotation);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                Object value = entry.getValue().getValue();
+                // constante d'enum (RequestMethod.GET) → "GET"
+                if (value instanceof VariableElement) {
+                    return ((VariableElement) value).getSimpleName().toString();
+                }
+                return String.valueOf(value);
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Nom du type effacé, relisible par RouteIndex.typeOf
+     */
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        switch (erased.getKind()) {
+            case ARRAY:
+                return typeName(((ArrayType) erased).getComponentType()) + "[]";
+            case DECLARED:
+                TypeElement element = (TypeElement) ((DeclaredType) erased).asElement();
+                return processingEnv.getElementUtils().getBinaryName(element).toString();
+            default:
+                return erased.toString(); // types primitifs
+        }
+    }
+
+    private void write() {
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", RouteIndex.RESOURCE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write(RouteIndex.HEADER + "\n");
+                for (RouteIndex.Entry entry : entries) {
+                    writer.write(entry.toLine() + "\n");
+                }
+            }
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "[RouteIndexProcessor] " + entries.size() + " route(s) indexée(s) dans " + RouteIndex.RESOURCE);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "[RouteIndexProcessor] Impossible d'écrire " + RouteIndex.RESOURCE + " : " + e.getMessage());
+        }
+    }
+}
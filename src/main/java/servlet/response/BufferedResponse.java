@@ -0,0 +1,236 @@
+package servlet.response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse dont le corps est gardé en mémoire jusqu'à maxBytes, pour être
+ * examiné (ETag) ou conservé (cache) avant l'envoi. Statut et en-têtes sont
+ * transmis directement à la réponse réelle.
+ *
+ * Au-delà de maxBytes, le corps déjà reçu est envoyé et la suite écrite
+ * directement (passage direct) : un gros résultat n'est jamais dupliqué en
+ * mémoire. sendError / sendRedirect passent aussi en direct.
+ *
+ * Une écriture non bloquante (setWriteListener) force aussi le passage
+ * direct : le corps n'est alors ni examiné (pas d'ETag) ni conservé.
+ */
+public class BufferedResponse extends HttpServletResponseWrapper {
+
+    private final long maxBytes;
+    private final Buffer buffer = new Buffer();
+    private OutputStream target = buffer;
+    private boolean passThrough;
+    private boolean errorSent;
+    private int status = SC_OK;
+    private ServletOutputStream output;
+    private PrintWriter writer;
+
+    public BufferedResponse(HttpServletResponse resp, long maxBytes) {
+        super(resp);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Vrai tant que le corps complet est en mémoire
+     */
+    public boolean isBuffered() {
+        return !passThrough && !errorSent;
+    }
+
+    public int getBufferedStatus() {
+        return status;
+    }
+
+    /**
+     * Vide le writer éventuel dans le tampon
+     */
+    public void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    public byte[] toByteArray() {
+        flushWriter();
+        return buffer.toByteArray();
+    }
+
+    /**
+     * ETag fort du corps en mémoire (calculé sans copie)
+     */
+    public String etag() {
+        flushWriter();
+        return ETags.of(buffer.array(), buffer.size());
+    }
+
+    /**
+     * Envoie le corps en mémoire à la réponse réelle (Content-Length compris)
+     */
+    public void sendBuffer() throws IOException {
+        flushWriter();
+        if (isBuffered()) {
+            HttpServletResponse resp = (HttpServletResponse) getResponse();
+            resp.setContentLength(buffer.size());
+            buffer.writeTo(resp.getOutputStream());
+        }
+    }
+
+    private static final class Buffer extends ByteArrayOutputStream {
+        Buffer() {
+            super(4096);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (!passThrough && buffer.size() + len > maxBytes) {
+            startPassThrough();
+        }
+        target.write(b, off, len);
+    }
+
+    /**
+     * Envoie le corps déjà reçu et écrit la suite directement
+     */
+    private void startPassThrough() throws IOException {
+        passThrough = true;
+        target = getResponse().getOutputStream();
+        buffer.writeTo(target);
+        buffer.reset();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (output == null) {
+            output = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return !passThrough || ((ServletOutputStream) target).isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    // Écriture non bloquante : passage direct (le tampon est
+                    // vidé en bloquant, avant l'enregistrement du listener)
+                    try {
+                        flushWriter();
+                        if (!passThrough) {
+                            startPassThrough();
+                        }
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Passage en écriture non bloquante impossible", e);
+                    }
+                    ((ServletOutputStream) target).setWriteListener(listener);
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    BufferedResponse.this.write(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    BufferedResponse.this.write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    if (passThrough) {
+                        target.flush();
+                    }
+                }
+            };
+        }
+        return output;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        flushWriter();
+        if (passThrough) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return (passThrough || errorSent) && super.isCommitted();
+    }
+
+    @Override
+    public void resetBuffer() {
+        flushWriter();
+        if (passThrough) {
+            super.resetBuffer();
+        } else {
+            buffer.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        status = SC_OK;
+        super.reset();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        // fixée à l'envoi, d'après le corps réellement écrit
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        status = sc;
+        super.setStatus(sc);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        status = sc;
+        errorSent = true;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        status = sc;
+        errorSent = true;
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        status = SC_FOUND;
+        errorSent = true;
+        super.sendRedirect(location);
+    }
+}
@@ -0,0 +1,398 @@
+package servlet.response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse compressée à la volée (gzip ou deflate) avec un Deflater de la
+ * réserve.
+ *
+ * Les premiers octets sont gardés en mémoire : la décision n'est prise
+ * qu'une fois le seuil (framework.compression.min.bytes) atteint, ou à la
+ * fin de la réponse. Un petit corps, un type non compressible ou un corps
+ * déjà codé partent tels quels, Content-Length compris.
+ *
+ * Un flush (flux JSON, NDJSON) vide le Deflater (SYNC_FLUSH) : le client
+ * reçoit les éléments au fil de l'eau. finish() doit être appelé à la fin de
+ * la réponse pour terminer le flux et rendre le Deflater.
+ *
+ * Écriture non bloquante (setWriteListener) : la compression n'est pas prise
+ * en charge. Avant toute sortie compressée, la réponse passe en identité
+ * (corps en attente envoyé tel quel) et le listener est confié au flux du
+ * conteneur ; une fois la compression commencée, IllegalStateException.
+ */
+public class CompressingResponse extends HttpServletResponseWrapper {
+
+    // En-tête gzip minimal : méthode deflate, ni nom, ni date (RFC 1952)
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 0 };
+
+    private enum State {
+        PENDING, IDENTITY, COMPRESSED, FINISHED
+    }
+
+    private final ResponseCompressor compressor;
+    private final String coding;
+    private final boolean gzip;
+    private final int level;
+    private final Pending pending = new Pending();
+    private State state = State.PENDING;
+    private long contentLength = -1;
+    private OutputStream target;
+    private Deflater deflater;
+    private CRC32 crc;
+    private byte[] chunk;
+    private ServletOutputStream output;
+    private PrintWriter writer;
+
+    CompressingResponse(HttpServletResponse resp, ResponseCompressor compressor, String coding, int level) {
+        super(resp);
+        this.compressor = compressor;
+        this.coding = coding;
+        this.gzip = "gzip".equals(coding);
+        this.level = level;
+    }
+
+    /**
+     * Vrai si le corps est (en cours d'être) envoyé compressé
+     */
+    public boolean isCompressed() {
+        return state == State.COMPRESSED || (state == State.FINISHED && deflater != null);
+    }
+
+    /**
+     * Vrai si un corps de ce type serait compressé (au-delà du seuil)
+     */
+    public boolean isCompressible(String contentType) {
+        return compressor.isCompressible(contentType);
+    }
+
+    /**
+     * Renonce à la compression avant toute écriture et renvoie la réponse
+     * réelle, pour un corps envoyé tel quel (plage d'un fichier, sendfile)
+     */
+    public HttpServletResponse identity() throws IOException {
+        if (state == State.PENDING && pending.size() == 0) {
+            decide(false);
+        }
+        return state == State.IDENTITY ? (HttpServletResponse) getResponse() : this;
+    }
+
+    /**
+     * Termine la réponse : envoie le corps en attente tel quel, ou la fin du
+     * flux compressé, et rend le Deflater. Sans effet s'il a déjà été appelé.
+     */
+    public void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        try {
+            if (state == State.PENDING) {
+                decide(false);
+                if (pending.size() > 0 && !isCommitted()) {
+                    super.setContentLengthLong(pending.size());
+                }
+                pending.writeTo(target);
+            } else if (state == State.COMPRESSED) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    drain(Deflater.NO_FLUSH);
+                }
+                if (gzip) {
+                    writeTrailer();
+                }
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Abandonne la réponse (erreur) : le corps en attente est perdu et le
+     * Deflater rendu. Une erreur survenue avant le seuil est ainsi envoyée
+     * non compressée, sans les octets déjà produits.
+     */
+    public void discard() {
+        pending.reset();
+        close();
+    }
+
+    private void close() {
+        if (state == State.COMPRESSED) {
+            compressor.getPool().release(deflater, gzip);
+        }
+        state = State.FINISHED;
+        pending.reset();
+    }
+
+    /**
+     * Choix du codage, à la première écriture au-delà du seuil (large) ou à
+     * la fin de la réponse
+     */
+    private void decide(boolean large) throws IOException {
+        if (large && shouldCompress()) {
+            HttpServletResponse resp = (HttpServletResponse) getResponse();
+            resp.setHeader("Content-Encoding", coding);
+            // Les octets envoyés ne sont plus ceux de l'ETag fort : il devient faible
+            String etag = resp.getHeader("ETag");
+            if (etag != null && !etag.startsWith("W/")) {
+                resp.setHeader("ETag", "W/" + etag);
+            }
+            deflater = compressor.getPool().acquire(level, gzip);
+            chunk = new byte[8192];
+            target = resp.getOutputStream();
+            state = State.COMPRESSED;
+            if (gzip) {
+                crc = new CRC32();
+                target.write(GZIP_HEADER);
+            }
+        } else {
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+            target = getResponse().getOutputStream();
+            state = State.IDENTITY;
+        }
+    }
+
+    private boolean shouldCompress() {
+        int status = getStatus();
+        return status != SC_NO_CONTENT && status != SC_PARTIAL_CONTENT && status != SC_NOT_MODIFIED
+                && !containsHeader("Content-Encoding")
+                && compressor.isCompressible(getContentType());
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        switch (state) {
+            case PENDING:
+                if (pending.size() + len < compressor.getMinBytes()) {
+                    pending.write(b, off, len);
+                    return;
+                }
+                decide(true);
+                if (pending.size() > 0) {
+                    byte[] head = pending.array();
+                    int size = pending.size();
+                    pending.reset();
+                    write(head, 0, size);
+                }
+                write(b, off, len);
+                return;
+            case IDENTITY:
+                target.write(b, off, len);
+                return;
+            case COMPRESSED:
+                if (gzip) {
+                    crc.update(b, off, len);
+                }
+                deflater.setInput(b, off, len);
+                while (!deflater.needsInput()) {
+                    drain(Deflater.NO_FLUSH);
+                }
+                return;
+            default:
+                throw new IOException("Réponse déjà terminée");
+        }
+    }
+
+    /**
+     * Écrit la sortie du Deflater ; renvoie true si le tampon a été rempli
+     * (il peut rester des octets à produire)
+     */
+    private boolean drain(int flush) throws IOException {
+        int n = deflater.deflate(chunk, 0, chunk.length, flush);
+        if (n > 0) {
+            target.write(chunk, 0, n);
+        }
+        return n == chunk.length;
+    }
+
+    private void flush() throws IOException {
+        if (state == State.COMPRESSED) {
+            while (drain(Deflater.SYNC_FLUSH)) {
+                // tampon plein : il reste des octets à vider
+            }
+            target.flush();
+        } else if (state == State.IDENTITY) {
+            target.flush();
+        }
+        // PENDING : rien n'est envoyé avant le seuil
+    }
+
+    /**
+     * Écriture non bloquante : passage en identité (le corps en attente est
+     * envoyé en bloquant, avant l'enregistrement du listener)
+     */
+    private void setWriteListener(WriteListener listener) {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (state == State.PENDING) {
+            try {
+                decide(false);
+                pending.writeTo(target);
+                pending.reset();
+            } catch (IOException e) {
+                throw new IllegalStateException("Passage en écriture non bloquante impossible", e);
+            }
+        }
+        if (state != State.IDENTITY) {
+            throw new IllegalStateException("Écriture non bloquante impossible : réponse "
+                    + (state == State.COMPRESSED ? "déjà compressée (" + coding + ")" : "terminée"));
+        }
+        ((ServletOutputStream) target).setWriteListener(listener);
+    }
+
+    private void writeTrailer() throws IOException {
+        byte[] trailer = new byte[8];
+        writeInt(trailer, 0, (int) crc.getValue());
+        writeInt(trailer, 4, (int) deflater.getBytesRead()); // taille modulo 2^32
+        target.write(trailer);
+    }
+
+    private static void writeInt(byte[] b, int off, int value) {
+        b[off] = (byte) value;
+        b[off + 1] = (byte) (value >> 8);
+        b[off + 2] = (byte) (value >> 16);
+        b[off + 3] = (byte) (value >> 24);
+    }
+
+    private static final class Pending extends ByteArrayOutputStream {
+        Pending() {
+            super(1024);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (output == null) {
+            output = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return state != State.IDENTITY || ((ServletOutputStream) target).isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    CompressingResponse.this.setWriteListener(listener);
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    CompressingResponse.this.write(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    CompressingResponse.this.write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    CompressingResponse.this.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    // Fermé par le conteneur après un forward : le flux est terminé par finish()
+                    CompressingResponse.this.flush();
+                }
+            };
+        }
+        return output;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        flush();
+        if (state != State.PENDING) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        // Un flux compressé commencé ne peut plus être remplacé
+        return state == State.COMPRESSED || (state != State.PENDING && super.isCommitted());
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (state == State.PENDING) {
+            if (writer != null) {
+                writer.flush();
+            }
+            pending.reset();
+        } else {
+            super.resetBuffer();
+        }
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        contentLength = -1;
+        super.reset();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        // Connue seulement une fois le codage choisi
+        if (state == State.PENDING) {
+            contentLength = len;
+        } else if (state == State.IDENTITY) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            setContentLengthLong(value != null ? Long.parseLong(value.trim()) : -1);
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            setHeader(name, value);
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package servlet.response;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * Deflaters réutilisés d'une réponse à l'autre. Chaque Deflater tient
+ * quelques centaines de Ko de mémoire native, libérée seulement par end() :
+ * en créer un par réponse fait croître la mémoire du processus bien avant que
+ * le GC ne s'en aperçoive.
+ *
+ * Deux réserves bornées : deflate brut (gzip, en-tête écrit à part) et zlib
+ * (Content-Encoding: deflate). Un Deflater rendu à une réserve pleine est
+ * libéré immédiatement.
+ */
+public class DeflaterPool {
+
+    private final BlockingQueue<Deflater> raw;
+    private final BlockingQueue<Deflater> zlib;
+    private final LongAdder created = new LongAdder();
+
+    public DeflaterPool(int size) {
+        this.raw = new ArrayBlockingQueue<>(Math.max(1, size));
+        this.zlib = new ArrayBlockingQueue<>(Math.max(1, size));
+    }
+
+    /**
+     * Deflater prêt à l'emploi au niveau demandé
+     *
+     * @param nowrap true pour un flux deflate brut (gzip), false pour zlib
+     */
+    public Deflater acquire(int level, boolean nowrap) {
+        Deflater deflater = queue(nowrap).poll();
+        if (deflater == null) {
+            created.increment();
+            return new Deflater(level, nowrap);
+        }
+        // Sans effet sur les données déjà compressées : le Deflater vient d'être réinitialisé
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    public void release(Deflater deflater, boolean nowrap) {
+        deflater.reset();
+        if (!queue(nowrap).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private BlockingQueue<Deflater> queue(boolean nowrap) {
+        return nowrap ? raw : zlib;
+    }
+
+    /**
+     * Nombre de Deflaters créés depuis le démarrage
+     */
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public int getIdleCount() {
+        return raw.size() + zlib.size();
+    }
+}
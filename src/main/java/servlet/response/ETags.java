@@ -0,0 +1,79 @@
+package servlet.response;
+
+import java.util.zip.CRC32C;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * ETags des réponses : fort pour les octets envoyés (CRC32C, accéléré par le
+ * processeur, non cryptographique, et taille), faible pour un jeton de
+ * version fourni par le contrôleur. Suffisant pour reconnaître une réponse
+ * inchangée, pas pour résister à une falsification volontaire.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * ETag des octets sérialisés : "crc32c-taille" (hexadécimal)
+     */
+    public static String of(byte[] body, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(body, 0, length);
+        return "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(length) + "\"";
+    }
+
+    /**
+     * ETag faible d'un jeton de version fourni par le contrôleur : la même
+     * version est servie en plusieurs représentations (compacte ou ?pretty,
+     * compressée ou non), équivalentes mais pas identiques octet pour octet
+     */
+    public static String ofVersion(String version) {
+        StringBuilder etag = new StringBuilder(version.length() + 6).append("W/\"v-");
+        for (int i = 0; i < version.length(); i++) {
+            char c = version.charAt(i);
+            // Seuls les caractères admis dans un ETag sont conservés
+            etag.append(c > 0x20 && c < 0x7f && c != '"' ? c : '_');
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * ETag d'un fichier : date de modification et taille (hexadécimal), sans
+     * lire son contenu
+     */
+    public static String ofFile(long lastModified, long size) {
+        return "\"f-" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+    }
+
+    /**
+     * Vrai si la méthode admet une réponse 304 (GET, HEAD)
+     */
+    public static boolean isConditional(HttpServletRequest req) {
+        String method = req.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    /**
+     * Vrai si If-None-Match contient l'ETag (comparaison faible, "*" compris)
+     */
+    public static boolean matches(HttpServletRequest req, String etag) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || opaque(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
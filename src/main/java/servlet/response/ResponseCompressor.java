@@ -0,0 +1,167 @@
+package servlet.response;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.annotations.Compression;
+import servlet.config.FrameworkConfig;
+
+/**
+ * Compression gzip / deflate des réponses des routes, négociée sur
+ * Accept-Encoding (gzip préféré à qualité égale).
+ *
+ * Seuls les corps d'au moins framework.compression.min.bytes octets et d'un
+ * type listé dans framework.compression.types (préfixes) sont compressés :
+ * en dessous, l'en-tête gzip et le coût CPU ne sont pas rentables.
+ */
+public class ResponseCompressor {
+
+    /**
+     * Niveau d'une route dont les réponses ne sont jamais compressées
+     */
+    public static final int DISABLED = -2;
+
+    private static final String DEFAULT_TYPES = "application/json,application/x-ndjson,text/,"
+            + "application/javascript,application/xml,image/svg+xml";
+
+    private final boolean enabled;
+    private final int level;
+    private final int minBytes;
+    private final String[] types;
+    private final DeflaterPool pool;
+
+    public ResponseCompressor() {
+        FrameworkConfig config = FrameworkConfig.getInstance();
+        this.enabled = config.getBoolean("framework.compression", true);
+        this.level = checkLevel(config.getInt("framework.compression.level", 6), "framework.compression.level");
+        this.minBytes = Math.max(1, config.getInt("framework.compression.min.bytes", 1024));
+        this.types = config.getString("framework.compression.types", DEFAULT_TYPES)
+                .toLowerCase(Locale.ROOT).split("\\s*,\\s*");
+        this.pool = new DeflaterPool(config.getInt("framework.compression.pool.size",
+                Runtime.getRuntime().availableProcessors() * 4));
+    }
+
+    /**
+     * Niveau déclaré par @Compression (méthode, sinon contrôleur) : DISABLED,
+     * -1 pour le niveau configuré, ou 0 à 9
+     */
+    public static int levelFor(Method method) {
+        Compression annotation = method.getAnnotation(Compression.class);
+        if (annotation == null) {
+            annotation = method.getDeclaringClass().getAnnotation(Compression.class);
+        }
+        if (annotation == null) {
+            return -1;
+        }
+        if (!annotation.enabled()) {
+            return DISABLED;
+        }
+        return checkLevel(annotation.level(),
+                "@Compression(level) de " + method.getDeclaringClass().getSimpleName() + "." + method.getName());
+    }
+
+    private static int checkLevel(int level, String source) {
+        if (level < -1 || level > 9) {
+            throw new IllegalArgumentException(source + " doit être compris entre 0 et 9 (-1 : défaut) : " + level);
+        }
+        return level;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Réponse compressante pour la requête, ou null si la route ou le client
+     * ne le permettent pas
+     *
+     * @param routeLevel niveau de la route (levelFor)
+     */
+    public CompressingResponse wrap(HttpServletRequest req, HttpServletResponse resp, int routeLevel) {
+        if (!enabled || routeLevel == DISABLED || "HEAD".equals(req.getMethod())) {
+            return null;
+        }
+        // La représentation dépend d'Accept-Encoding, que le client compresse ou non
+        resp.addHeader("Vary", "Accept-Encoding");
+        String coding = negotiate(req.getHeader("Accept-Encoding"));
+        if (coding == null) {
+            return null;
+        }
+        return new CompressingResponse(resp, this, coding, routeLevel >= 0 ? routeLevel : level);
+    }
+
+    /**
+     * Codage retenu parmi gzip et deflate d'après Accept-Encoding (qualités
+     * et "*" compris), ou null
+     */
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        float gzip = -1;
+        float deflate = -1;
+        float any = -1;
+        for (String part : acceptEncoding.split(",")) {
+            int semicolon = part.indexOf(';');
+            String coding = (semicolon >= 0 ? part.substring(0, semicolon) : part).trim();
+            float quality = semicolon >= 0 ? quality(part.substring(semicolon + 1)) : 1;
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (coding.equalsIgnoreCase("deflate")) {
+                deflate = quality;
+            } else if (coding.equals("*")) {
+                any = quality;
+            }
+        }
+        if (gzip < 0) {
+            gzip = any;
+        }
+        if (deflate < 0) {
+            deflate = any;
+        }
+        if (gzip > 0 && gzip >= deflate) {
+            return "gzip";
+        }
+        return deflate > 0 ? "deflate" : null;
+    }
+
+    private static float quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String p = parameter.trim();
+            if (p.length() > 2 && (p.charAt(0) == 'q' || p.charAt(0) == 'Q') && p.charAt(1) == '=') {
+                try {
+                    return Float.parseFloat(p.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Vrai si le type de contenu commence par l'un des préfixes configurés
+     */
+    boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        for (String prefix : types) {
+            if (!prefix.isEmpty() && type.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int getMinBytes() {
+        return minBytes;
+    }
+
+    public DeflaterPool getPool() {
+        return pool;
+    }
+}
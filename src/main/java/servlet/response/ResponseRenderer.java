@@ -1,35 +1,119 @@
 package servlet.response;
 
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import servlet.ModelView;
 import servlet.annotations.Json;
-import servlet.annotations.Session;
 import servlet.api.ApiResponse;
+import servlet.config.FrameworkConfig;
+import servlet.file.FileResponse;
+import servlet.file.FileSender;
+import servlet.metrics.MetricsRegistry;
 import servlet.session.CustomSession;
+import servlet.session.SessionResolver;
+import servlet.trace.RequestTrace;
+import servlet.trace.TraceBuffer;
+import servlet.template.Template;
+import servlet.template.TemplateEngine;
 import servlet.utils.JsonUtil;
+import servlet.view.ModelViewRequest;
+import servlet.view.ResolvedView;
+import servlet.view.ViewResolver;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
 
 public class ResponseRenderer {
 
-    private static final String SESSION_COOKIE_NAME = "FRAMEWORK_SESSION_ID"; // Changé pour éviter conflit avec Tomcat
+    private final StreamingJsonWriter streamingWriter = new StreamingJsonWriter();
+
+    // ETag automatique des réponses JSON et des vues (GET / HEAD) : le corps est
+    // gardé en mémoire jusqu'à framework.etag.max.bytes pour être haché
+    private final boolean etagEnabled;
+    private final long etagMaxBytes;
+
+    // Résultats FileResponse / Path / File et ressources statiques
+    private final FileSender fileSender;
+
+    // Vues résolues une fois (existence, dispatcher) et templates compilés,
+    // créés au premier besoin
+    private volatile ViewResolver viewResolver;
+    private volatile TemplateEngine templateEngine;
+
+    public ResponseRenderer() {
+        FrameworkConfig config = FrameworkConfig.getInstance();
+        etagEnabled = config.getBoolean("framework.etag", true);
+        etagMaxBytes = config.getLong("framework.etag.max.bytes", 1024 * 1024);
+        fileSender = new FileSender();
+    }
+
+    public FileSender getFileSender() {
+        return fileSender;
+    }
+
+    public ViewResolver getViewResolver(ServletContext context) {
+        ViewResolver resolver = viewResolver;
+        if (resolver == null) {
+            synchronized (this) {
+                if (viewResolver == null) {
+                    viewResolver = new ViewResolver(context);
+                }
+                resolver = viewResolver;
+            }
+        }
+        return resolver;
+    }
+
+    public TemplateEngine getTemplateEngine(ServletContext context) {
+        TemplateEngine engine = templateEngine;
+        if (engine == null) {
+            ViewResolver resolver = getViewResolver(context);
+            synchronized (this) {
+                if (templateEngine == null) {
+                    templateEngine = new TemplateEngine(context, resolver);
+                }
+                engine = templateEngine;
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Arrête la surveillance des vues
+     */
+    public void close() {
+        if (viewResolver != null) {
+            viewResolver.close();
+        }
+    }
 
     public void render(HttpServletResponse resp, Object result, HttpServletRequest req,
             ServletContext context, Method method, StringBuilder debug) throws Exception {
 
         // Gérer le cookie de session si une session a été utilisée
-        handleSessionCookie(req, resp, method);
+        handleSessionCookie(req, resp);
+
+        // Fichier : envoyé tel quel, même depuis une méthode @Json
+        FileResponse file = asFile(result);
+        if (file != null) {
+            fileSender.send(req, resp, file, context, debug);
+            return;
+        }
 
         boolean isJson = method.isAnnotationPresent(Json.class);
 
         if (isJson) {
-            sendJson(resp, result, debug);
+            sendJson(resp, result, req, method, debug);
         } else if (result instanceof String) {
             sendString(resp, (String) result, debug);
         } else if (result instanceof ModelView) {
@@ -39,35 +123,70 @@ public class ResponseRenderer {
         }
     }
 
+    private static FileResponse asFile(Object result) {
+        if (result instanceof FileResponse) {
+            return (FileResponse) result;
+        }
+        if (result instanceof Path) {
+            return FileResponse.of((Path) result);
+        }
+        if (result instanceof File) {
+            return FileResponse.of(((File) result).toPath());
+        }
+        return null;
+    }
+
     /**
-     * Crée ou met à jour le cookie de session si une session a été utilisée dans la
-     * méthode
+     * Rendu du résultat d'un contrôleur asynchrone (CompletionStage), une fois
+     * la valeur disponible. Hors du thread de la requête, une vue ne peut pas
+     * être atteinte par RequestDispatcher.forward : elle passe par
+     * AsyncContext.dispatch, qui termine lui-même l'échange.
+     *
+     * @return true si la réponse a été confiée à un dispatch (l'appelant ne
+     *         doit alors pas appeler complete())
      */
-    private void handleSessionCookie(HttpServletRequest req, HttpServletResponse resp, Method method) {
-        // Vérifier si la méthode utilise @Session
-        boolean hasSessionParam = false;
-        for (Parameter param : method.getParameters()) {
-            if (param.isAnnotationPresent(Session.class)) {
-                hasSessionParam = true;
-                break;
-            }
+    public boolean renderAsync(HttpServletResponse resp, Object result, HttpServletRequest req,
+            AsyncContext async, ServletContext context, Method method, StringBuilder debug) throws Exception {
+        if (!(result instanceof ModelView) || method.isAnnotationPresent(Json.class)) {
+            render(resp, result, req, context, method, debug);
+            return false;
         }
 
-        if (!hasSessionParam) {
-            return;
+        ModelView mv = (ModelView) result;
+        String viewPath = "/" + mv.getView();
+        if (getTemplateEngine(context).handles(viewPath)) {
+            // Template intégré : rendu dans ce thread, sans dispatch
+            render(resp, result, req, context, method, debug);
+            return false;
+        }
+
+        handleSessionCookie(req, resp);
+        ResolvedView view = getViewResolver(context).resolve(viewPath);
+        if (!view.exists()) {
+            sendPlain(resp, "Vue introuvable : " + view.getRealPath(), 404, debug);
+            return false;
         }
+        if (debug != null)
+            debug.append("Réponse       : vue ").append(viewPath).append(" (dispatch asynchrone)\n");
+        // La requête du dispatch est celle de startAsync : attributs recopiés
+        mv.passVar(req);
+        async.dispatch(context, viewPath);
+        return true;
+    }
 
-        // Récupérer la session depuis l'attribut de requête
+    /**
+     * Crée ou met à jour le cookie de session si une session a été utilisée dans la
+     * méthode (le binder @Session la dépose dans les attributs de la requête)
+     */
+    private void handleSessionCookie(HttpServletRequest req, HttpServletResponse resp) {
         CustomSession session = (CustomSession) req.getAttribute("__current_session");
 
         if (session == null) {
-            System.err.println(
-                    "[ResponseRenderer] ATTENTION: Session utilisée mais non trouvée dans les attributs de requête");
             return;
         }
 
         // Toujours créer/mettre à jour le cookie pour maintenir la session
-        Cookie sessionCookie = new Cookie(SESSION_COOKIE_NAME, session.getSessionId());
+        Cookie sessionCookie = new Cookie(SessionResolver.SESSION_COOKIE_NAME, session.getSessionId());
         sessionCookie.setHttpOnly(true);
         sessionCookie.setPath(req.getContextPath().isEmpty() ? "/" : req.getContextPath());
         sessionCookie.setMaxAge(session.getMaxInactiveInterval());
@@ -82,40 +201,253 @@ public class ResponseRenderer {
         sendPlain(resp, "404 - Aucun contrôleur trouvé", 404, debug);
     }
 
-    private void sendJson(HttpServletResponse resp, Object result, StringBuilder debug) throws Exception {
+    public void methodNotAllowed(HttpServletResponse resp, Set<String> allowed, StringBuilder debug)
+            throws IOException {
+        resp.setHeader("Allow", String.join(", ", allowed));
+        sendPlain(resp, "405 - Méthode non autorisée (autorisées : " + String.join(", ", allowed) + ")",
+                405, debug);
+    }
+
+    /**
+     * Point de readiness : 503 tant que le warm-up n'est pas terminé
+     */
+    public void readiness(HttpServletResponse resp, boolean ready) throws IOException {
+        sendPlain(resp, ready ? "READY" : "WARMING UP", ready ? 200 : 503, null);
+    }
+
+    /**
+     * Consultation des traces : la trace demandée (?id=...) ou les plus récentes
+     */
+    public void traces(HttpServletResponse resp, TraceBuffer buffer, String id) throws IOException {
+        resp.setContentType("text/plain;charset=UTF-8");
+        resp.setHeader("Cache-Control", "no-store");
+        var out = resp.getWriter();
+
+        if (id != null) {
+            RequestTrace trace = buffer.find(id);
+            if (trace == null) {
+                resp.setStatus(404);
+                out.println("Trace introuvable : " + id);
+            } else {
+                out.println(trace);
+            }
+            return;
+        }
+
+        List<RequestTrace> recent = buffer.recent(buffer.capacity());
+        out.println(recent.size() + " trace(s) conservée(s) sur " + buffer.total()
+                + " (capacité " + buffer.capacity() + ")");
+        for (RequestTrace trace : recent) {
+            out.println();
+            out.println(trace);
+        }
+    }
+
+    /**
+     * Export des métriques au format texte de Prometheus
+     */
+    public void metrics(HttpServletResponse resp, MetricsRegistry metrics) throws IOException {
+        resp.setContentType("text/plain;version=0.0.4;charset=UTF-8");
+        resp.setHeader("Cache-Control", "no-store");
+        metrics.writePrometheus(resp.getWriter());
+    }
+
+    /**
+     * Sérialise la réponse directement dans le flux de sortie (UTF-8), avec le
+     * writer mis en cache pour le type de retour de la méthode. Sortie compacte,
+     * indentée si la requête contient ?pretty.
+     */
+    private void sendJson(HttpServletResponse resp, Object result, HttpServletRequest req, Method method,
+            StringBuilder debug) throws Exception {
         resp.setContentType("application/json;charset=UTF-8");
+        boolean pretty = isPrettyRequested(req);
+        if (debug != null)
+            debug.append("Réponse       : JSON (").append(result != null ? result.getClass().getSimpleName() : "null")
+                    .append(pretty ? ", indenté" : "").append(")\n");
+
+        if (StreamingJsonWriter.isStreamable(result)) {
+            sendJsonStream(resp, result, req, pretty, debug);
+            return;
+        }
+
+        ApiResponse<?> response;
+        ObjectWriter writer;
+        if (result instanceof ApiResponse) {
+            response = (ApiResponse<?>) result;
+            writer = JsonUtil.declaresApiResponse(method.getGenericReturnType())
+                    ? JsonUtil.responseWriter(method.getGenericReturnType(), pretty)
+                    : JsonUtil.responseWriter(pretty);
+        } else {
+            response = ApiResponse.success(result);
+            writer = JsonUtil.responseWriter(method.getGenericReturnType(), pretty);
+        }
+
+        boolean conditional = etagEnabled && ETags.isConditional(req);
+        if (conditional && response.getVersion() != null) {
+            // Jeton de version du contrôleur : 304 sans sérialiser les données
+            String etag = ETags.ofVersion(response.getVersion());
+            if (notModified(req, resp, etag, debug)) {
+                return;
+            }
+            resp.setHeader("ETag", etag);
+            conditional = false;
+        }
+
+        HttpServletResponse target = conditional ? new BufferedResponse(resp, etagMaxBytes) : resp;
         try {
-            ApiResponse<?> response = (result instanceof ApiResponse)
-                    ? (ApiResponse<?>) result
-                    : ApiResponse.success(result);
-            resp.getWriter().print(JsonUtil.toJson(response));
+            writer.writeValue(target.getOutputStream(), response);
         } catch (Exception e) {
+            // Rien n'est encore parti : on remplace par une erreur. Sinon la
+            // réponse est tronquée et l'erreur ne peut qu'être remontée.
+            if (target.isCommitted()) {
+                throw e;
+            }
+            target.resetBuffer();
             ApiResponse<?> err = ApiResponse.error(500, "Erreur de sérialisation JSON", e.getMessage());
-            resp.getWriter().print(JsonUtil.toJson(err));
+            JsonUtil.responseWriter(pretty).writeValue(target.getOutputStream(), err);
+        }
+        if (conditional) {
+            sendWithETag(req, (BufferedResponse) target, debug);
+        }
+    }
+
+    /**
+     * Envoie le corps gardé en mémoire avec son ETag, ou un 304 sans corps si
+     * le client possède déjà cette version. Un corps passé en direct (trop
+     * volumineux) est envoyé sans ETag.
+     */
+    private void sendWithETag(HttpServletRequest req, BufferedResponse buffered, StringBuilder debug)
+            throws IOException {
+        if (buffered.isBuffered() && buffered.getBufferedStatus() == HttpServletResponse.SC_OK) {
+            String etag = buffered.etag();
+            HttpServletResponse resp = (HttpServletResponse) buffered.getResponse();
+            if (notModified(req, resp, etag, debug)) {
+                return;
+            }
+            resp.setHeader("ETag", etag);
+        }
+        buffered.sendBuffer();
+    }
+
+    private boolean notModified(HttpServletRequest req, HttpServletResponse resp, String etag,
+            StringBuilder debug) {
+        if (!ETags.matches(req, etag)) {
+            return false;
+        }
+        resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        resp.setHeader("ETag", etag);
+        if (debug != null)
+            debug.append("Réponse       : 304 non modifiée (ETag ").append(etag).append(")\n");
+        return true;
+    }
+
+    /**
+     * Résultat Stream / Iterator / Iterable écrit élément par élément, en JSON
+     * (enveloppe ApiResponse) ou en NDJSON si la requête le demande
+     */
+    private void sendJsonStream(HttpServletResponse resp, Object result, HttpServletRequest req, boolean pretty,
+            StringBuilder debug) throws Exception {
+        boolean ndjson = isNdjsonRequested(req);
+        if (ndjson) {
+            resp.setContentType("application/x-ndjson;charset=UTF-8");
+        }
+
+        try {
+            long count = streamingWriter.write(resp.getOutputStream(), result, ndjson, pretty && !ndjson);
+            if (debug != null)
+                debug.append("Réponse       : flux ").append(ndjson ? "NDJSON" : "JSON").append(" (")
+                        .append(count).append(" éléments)\n");
+        } catch (IOException e) {
+            if (StreamingJsonWriter.isSerializationError(e)) {
+                sendJsonStreamError(resp, e, pretty);
+                return;
+            }
+            // Client déconnecté : le résultat est déjà fermé, rien à renvoyer
+            System.err.println("[ResponseRenderer] Flux interrompu par le client : " + e.getMessage());
+            if (debug != null)
+                debug.append("Réponse       : flux interrompu par le client\n");
+        } catch (RuntimeException e) {
+            sendJsonStreamError(resp, e, pretty);
+        }
+    }
+
+    private void sendJsonStreamError(HttpServletResponse resp, Exception e, boolean pretty) throws Exception {
+        // Début du flux déjà envoyé : la réponse reste tronquée (JSON invalide)
+        if (resp.isCommitted()) {
+            throw e;
+        }
+        resp.resetBuffer();
+        resp.setContentType("application/json;charset=UTF-8");
+        ApiResponse<?> err = ApiResponse.error(500, "Erreur de sérialisation JSON", e.getMessage());
+        JsonUtil.responseWriter(pretty).writeValue(resp.getOutputStream(), err);
+    }
+
+    private boolean isNdjsonRequested(HttpServletRequest req) {
+        if ("ndjson".equalsIgnoreCase(req.getParameter("format"))) {
+            return true;
         }
+        String accept = req.getHeader("Accept");
+        return accept != null && accept.contains("application/x-ndjson");
+    }
+
+    private boolean isPrettyRequested(HttpServletRequest req) {
+        String pretty = req.getParameter("pretty");
+        return pretty != null && !pretty.equalsIgnoreCase("false") && !pretty.equals("0");
     }
 
     private void sendString(HttpServletResponse resp, String text, StringBuilder debug) throws IOException {
         resp.setContentType("text/plain;charset=UTF-8");
-        var out = resp.getWriter();
         if (debug != null)
-            out.println(debug.toString());
-        out.println(text);
+            debug.append("Réponse       : texte (").append(text.length()).append(" caractères)\n");
+        resp.getWriter().println(text);
     }
 
     private void forwardToModelView(HttpServletRequest req, HttpServletResponse resp,
             ModelView mv, StringBuilder debug, ServletContext context) throws Exception {
         String viewPath = "/" + mv.getView();
-        String realPath = context.getRealPath(viewPath);
-        File viewFile = new File(realPath);
+        ResolvedView view = getViewResolver(context).resolve(viewPath);
 
-        if (viewFile.exists() && viewFile.isFile()) {
+        if (view.exists() && getTemplateEngine(context).handles(viewPath)) {
+            renderTemplate(req, resp, mv, view, context, debug);
+        } else if (view.exists()) {
             if (debug != null)
-                req.setAttribute("_debugOutput", debug.toString());
-            mv.passVar(req);
-            context.getRequestDispatcher(viewPath).forward(req, resp);
+                debug.append("Réponse       : vue ").append(viewPath).append("\n");
+            // Attributs du modèle lus dans sa Map, sans recopie dans la requête
+            HttpServletRequest viewRequest = mv.getAttributes() != null && !mv.getAttributes().isEmpty()
+                    ? new ModelViewRequest(req, mv.getAttributes())
+                    : req;
+            if (etagEnabled && ETags.isConditional(req)) {
+                BufferedResponse buffered = new BufferedResponse(resp, etagMaxBytes);
+                view.getDispatcher().forward(viewRequest, buffered);
+                sendWithETag(req, buffered, debug);
+            } else {
+                view.getDispatcher().forward(viewRequest, resp);
+            }
         } else {
-            sendPlain(resp, "Vue introuvable : " + realPath, 404, debug);
+            sendPlain(resp, "Vue introuvable : " + view.getRealPath(), 404, debug);
+        }
+    }
+
+    /**
+     * Vue rendue par le moteur de templates : écrite directement dans la
+     * réponse à partir de la Map du ModelView
+     */
+    private void renderTemplate(HttpServletRequest req, HttpServletResponse resp, ModelView mv,
+            ResolvedView view, ServletContext context, StringBuilder debug) throws IOException {
+        TemplateEngine engine = getTemplateEngine(context);
+        Template template = engine.getTemplate(view);
+        if (debug != null)
+            debug.append("Réponse       : template ").append(view.getPath()).append("\n");
+
+        resp.setContentType(engine.getContentType());
+        if (etagEnabled && ETags.isConditional(req)) {
+            BufferedResponse buffered = new BufferedResponse(resp, etagMaxBytes);
+            template.render(mv.getAttributes(), req, buffered.getWriter());
+            sendWithETag(req, buffered, debug);
+        } else {
+            PrintWriter out = resp.getWriter();
+            template.render(mv.getAttributes(), req, out);
+            out.flush();
         }
     }
 
@@ -127,9 +459,8 @@ public class ResponseRenderer {
             throws IOException {
         resp.setStatus(status);
         resp.setContentType("text/plain;charset=UTF-8");
-        var out = resp.getWriter();
         if (debug != null)
-            out.println(debug.toString());
-        out.println(message);
+            debug.append("Réponse       : ").append(message).append("\n");
+        resp.getWriter().println(message);
     }
 }
\ No newline at end of file
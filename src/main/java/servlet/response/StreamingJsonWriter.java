@@ -0,0 +1,147 @@
+package servlet.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.stream.BaseStream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import servlet.config.FrameworkConfig;
+import servlet.utils.JsonUtil;
+
+/**
+ * Écriture incrémentale des résultats @Json de type Stream, Iterator ou
+ * Iterable (hors Collection, déjà en mémoire) : les éléments sont sérialisés
+ * un par un dans le flux de la réponse, sans liste intermédiaire.
+ *
+ * - JSON : {"status":"success","code":200,"data":[ ... ]}, même enveloppe
+ * qu'ApiResponse.success ;
+ * - NDJSON (application/x-ndjson) : un élément par ligne, sans enveloppe.
+ *
+ * Le flux est vidé tous les framework.json.stream.flush éléments (100 par
+ * défaut). Le Stream (ou l'Iterator s'il est AutoCloseable) est toujours
+ * fermé, y compris quand le client se déconnecte en cours de route.
+ */
+public class StreamingJsonWriter {
+
+    // Pas de flush à chaque élément : le rythme est fixé par flushEvery
+    private static final ObjectWriter ELEMENT_WRITER = JsonUtil.getMapper().writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final int flushEvery;
+
+    public StreamingJsonWriter() {
+        this.flushEvery = Math.max(1, FrameworkConfig.getInstance().getInt("framework.json.stream.flush", 100));
+    }
+
+    /**
+     * Vrai pour un résultat à écrire élément par élément
+     */
+    public static boolean isStreamable(Object result) {
+        return result instanceof BaseStream
+                || result instanceof Iterator
+                || (result instanceof Iterable && !(result instanceof Collection));
+    }
+
+    /**
+     * Vrai pour un type de retour déclaré écrit élément par élément
+     */
+    public static boolean isStreamableType(Class<?> type) {
+        return BaseStream.class.isAssignableFrom(type)
+                || Iterator.class.isAssignableFrom(type)
+                || (Iterable.class.isAssignableFrom(type) && !Collection.class.isAssignableFrom(type));
+    }
+
+    /**
+     * Écrit le résultat et renvoie le nombre d'éléments. Une IOException autre
+     * qu'une erreur de sérialisation signifie que le client est parti.
+     */
+    public long write(OutputStream out, Object result, boolean ndjson, boolean pretty) throws IOException {
+        Iterator<?> iterator = iterator(result);
+        try {
+            return ndjson
+                    ? writeLines(out, iterator)
+                    : writeArray(out, iterator, pretty);
+        } finally {
+            close(result, iterator);
+        }
+    }
+
+    private long writeArray(OutputStream out, Iterator<?> iterator, boolean pretty) throws IOException {
+        long count = 0;
+        try (JsonGenerator gen = JsonUtil.getMapper().getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // Flux interrompu : laisser le JSON incomplet plutôt que fermer
+            // le tableau, le client ne doit pas le prendre pour un résultat complet
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            if (pretty) {
+                gen.useDefaultPrettyPrinter();
+            }
+            gen.writeStartObject();
+            gen.writeStringField("status", "success");
+            gen.writeNumberField("code", 200);
+            gen.writeArrayFieldStart("data");
+            while (iterator.hasNext()) {
+                ELEMENT_WRITER.writeValue(gen, iterator.next());
+                if (++count % flushEvery == 0) {
+                    gen.flush();
+                }
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        return count;
+    }
+
+    private long writeLines(OutputStream out, Iterator<?> iterator) throws IOException {
+        long count = 0;
+        try (SequenceWriter lines = ELEMENT_WRITER.withRootValueSeparator("\n").writeValues(out)) {
+            while (iterator.hasNext()) {
+                lines.write(iterator.next());
+                if (++count % flushEvery == 0) {
+                    lines.flush();
+                }
+            }
+        }
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private static Iterator<?> iterator(Object result) {
+        if (result instanceof BaseStream) {
+            return ((BaseStream<?, ?>) result).iterator();
+        }
+        if (result instanceof Iterator) {
+            return (Iterator<?>) result;
+        }
+        return ((Iterable<?>) result).iterator();
+    }
+
+    private static void close(Object result, Iterator<?> iterator) {
+        try {
+            if (result instanceof AutoCloseable) {
+                ((AutoCloseable) result).close();
+            } else if (iterator instanceof AutoCloseable) {
+                ((AutoCloseable) iterator).close();
+            }
+        } catch (Exception e) {
+            System.err.println("[StreamingJsonWriter] Fermeture du résultat : " + e);
+        }
+    }
+
+    /**
+     * Vrai si l'exception vient de la sérialisation et non de la connexion
+     */
+    static boolean isSerializationError(IOException e) {
+        return e instanceof JsonProcessingException;
+    }
+}
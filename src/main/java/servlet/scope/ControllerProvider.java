@@ -0,0 +1,18 @@
+package servlet.scope;
+
+/**
+ * Fournit les instances de contrôleur selon leur portée
+ * (@Singleton, @RequestScoped, @Pooled)
+ */
+public interface ControllerProvider {
+
+    /**
+     * Retourne une instance à utiliser pour la requête courante
+     */
+    Object acquire() throws Exception;
+
+    /**
+     * Rend l'instance après l'exécution de la méthode
+     */
+    void release(Object controller);
+}
@@ -0,0 +1,59 @@
+package servlet.scope;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import servlet.annotations.Pooled;
+import servlet.annotations.RequestScoped;
+import servlet.annotations.Singleton;
+import servlet.config.FrameworkConfig;
+
+/**
+ * Registre des providers : un seul provider par classe de contrôleur, partagé
+ * par toutes ses routes (un @Singleton n'est donc instancié qu'une fois).
+ *
+ * Sans annotation, la portée est celle définie par
+ * framework.controllers.scope (request par défaut, ou singleton).
+ */
+public class ControllerProviders {
+
+    private static final Map<Class<?>, ControllerProvider> PROVIDERS = new ConcurrentHashMap<>();
+
+    public static ControllerProvider get(Class<?> controllerClass) {
+        return PROVIDERS.computeIfAbsent(controllerClass, c -> {
+            try {
+                return create(c);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Impossible d'instancier le contrôleur " + c.getName(), e);
+            }
+        });
+    }
+
+    private static ControllerProvider create(Class<?> controllerClass) throws Exception {
+        if (controllerClass.isAnnotationPresent(Singleton.class)) {
+            return new SingletonProvider(controllerClass);
+        }
+        if (controllerClass.isAnnotationPresent(Pooled.class)) {
+            Pooled pooled = controllerClass.getAnnotation(Pooled.class);
+            return new PooledProvider(controllerClass, pooled.size(), pooled.timeout());
+        }
+        if (controllerClass.isAnnotationPresent(RequestScoped.class)) {
+            return new RequestScopedProvider(controllerClass);
+        }
+
+        String defaultScope = FrameworkConfig.getInstance().getString("framework.controllers.scope", "request");
+        if ("singleton".equalsIgnoreCase(defaultScope)) {
+            return new SingletonProvider(controllerClass);
+        }
+        return new RequestScopedProvider(controllerClass);
+    }
+
+    /**
+     * Oublie tous les providers (utile pour les tests ou un rechargement)
+     */
+    public static void clear() {
+        PROVIDERS.clear();
+    }
+}
@@ -0,0 +1,16 @@
+package servlet.scope;
+
+/**
+ * Exception levée quand aucune instance de contrôleur @Pooled n'est libre
+ * dans le délai imparti (HTTP 503)
+ */
+public class PoolExhaustedException extends RuntimeException {
+
+    public PoolExhaustedException(Class<?> controllerClass, int size) {
+        super("Aucune instance libre de " + controllerClass.getSimpleName() + " (pool de " + size + ")");
+    }
+
+    public int getStatusCode() {
+        return 503;
+    }
+}
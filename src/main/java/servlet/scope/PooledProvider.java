@@ -0,0 +1,86 @@
+package servlet.scope;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool borné d'instances. Les instances sont créées à la demande jusqu'à la
+ * taille maximale, puis réutilisées ; une instance n'est jamais partagée par
+ * deux requêtes simultanées.
+ */
+public class PooledProvider implements ControllerProvider {
+
+    private final Class<?> controllerClass;
+    private final Constructor<?> constructor;
+    private final BlockingQueue<Object> idle;
+    private final AtomicInteger created = new AtomicInteger();
+    private final int maxSize;
+    private final long timeoutMillis;
+
+    public PooledProvider(Class<?> controllerClass, int maxSize, long timeoutMillis) throws Exception {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("@Pooled(size) doit être > 0 : " + controllerClass.getName());
+        }
+        this.controllerClass = controllerClass;
+        this.constructor = RequestScopedProvider.constructorOf(controllerClass);
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+        this.maxSize = maxSize;
+        this.timeoutMillis = timeoutMillis;
+
+        // Une première instance au démarrage pour détecter les erreurs de construction
+        idle.offer(newInstance());
+    }
+
+    @Override
+    public Object acquire() throws Exception {
+        Object controller = idle.poll();
+        if (controller != null) {
+            return controller;
+        }
+
+        // Créer une instance tant que la taille maximale n'est pas atteinte
+        while (true) {
+            int count = created.get();
+            if (count >= maxSize) {
+                break;
+            }
+            if (created.compareAndSet(count, count + 1)) {
+                try {
+                    return constructor.newInstance();
+                } catch (Exception e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+
+        controller = idle.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        if (controller == null) {
+            throw new PoolExhaustedException(controllerClass, maxSize);
+        }
+        return controller;
+    }
+
+    @Override
+    public void release(Object controller) {
+        if (controller != null) {
+            idle.offer(controller);
+        }
+    }
+
+    private Object newInstance() throws Exception {
+        created.incrementAndGet();
+        return constructor.newInstance();
+    }
+
+    public int getCreatedCount() {
+        return created.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+}
@@ -0,0 +1,32 @@
+package servlet.scope;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Nouvelle instance à chaque requête. Le constructeur est résolu une seule
+ * fois au démarrage au lieu d'un getDeclaredConstructor() par requête.
+ */
+public class RequestScopedProvider implements ControllerProvider {
+
+    private final Constructor<?> constructor;
+
+    public RequestScopedProvider(Class<?> controllerClass) throws Exception {
+        this.constructor = constructorOf(controllerClass);
+    }
+
+    @Override
+    public Object acquire() throws Exception {
+        return constructor.newInstance();
+    }
+
+    @Override
+    public void release(Object controller) {
+        // l'instance est abandonnée au GC
+    }
+
+    static Constructor<?> constructorOf(Class<?> controllerClass) throws NoSuchMethodException {
+        Constructor<?> constructor = controllerClass.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor;
+    }
+}
@@ -0,0 +1,23 @@
+package servlet.scope;
+
+/**
+ * Instance unique créée à la construction du provider (donc au démarrage)
+ */
+public class SingletonProvider implements ControllerProvider {
+
+    private final Object instance;
+
+    public SingletonProvider(Class<?> controllerClass) throws Exception {
+        this.instance = RequestScopedProvider.constructorOf(controllerClass).newInstance();
+    }
+
+    @Override
+    public Object acquire() {
+        return instance;
+    }
+
+    @Override
+    public void release(Object controller) {
+        // rien à faire : l'instance est partagée
+    }
+}
@@ -0,0 +1,142 @@
+package servlet.security;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+import servlet.annotations.Authorized;
+import servlet.annotations.Role;
+import servlet.session.CustomSession;
+
+/**
+ * Règle de sécurité d'une route, calculée une fois au démarrage à partir de
+ * @Authorized et @Role :
+ * - PUBLIC : aucune vérification (la session n'est même pas recherchée) ;
+ * - AUTHENTICATED : la variable d'authentification doit être présente ;
+ * - ROLE : authentifié et possédant l'un des rôles requis.
+ */
+public class SecurityPolicy {
+
+    public enum Kind {
+        PUBLIC, AUTHENTICATED, ROLE
+    }
+
+    public static final SecurityPolicy PUBLIC = new SecurityPolicy(Kind.PUBLIC, new String[0], null, null);
+
+    private final Kind kind;
+    private final String[] roles;
+    private final String authVariable;
+    private final String roleVariable;
+
+    private SecurityPolicy(Kind kind, String[] roles, String authVariable, String roleVariable) {
+        this.kind = kind;
+        this.roles = roles;
+        this.authVariable = authVariable;
+        this.roleVariable = roleVariable;
+    }
+
+    public static SecurityPolicy authenticated(SecurityConfig config) {
+        return new SecurityPolicy(Kind.AUTHENTICATED, new String[0],
+                config.getAuthSessionVariable(), config.getRoleSessionVariable());
+    }
+
+    public static SecurityPolicy role(SecurityConfig config, String... roles) {
+        return new SecurityPolicy(Kind.ROLE, roles,
+                config.getAuthSessionVariable(), config.getRoleSessionVariable());
+    }
+
+    /**
+     * Lit les annotations de sécurité de la méthode
+     */
+    public static SecurityPolicy forMethod(Method method) {
+        Role roleAnnotation = method.getAnnotation(Role.class);
+        if (roleAnnotation != null) {
+            return role(SecurityConfig.getInstance(), roleAnnotation.value());
+        }
+        if (method.isAnnotationPresent(Authorized.class)) {
+            return authenticated(SecurityConfig.getInstance());
+        }
+        return PUBLIC;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isPublic() {
+        return kind == Kind.PUBLIC;
+    }
+
+    /**
+     * Vérifie la session courante (peut être null)
+     *
+     * @throws UnauthorizedException si l'utilisateur n'est pas authentifié
+     * @throws ForbiddenException si l'utilisateur n'a pas le rôle requis
+     */
+    public void check(CustomSession session) throws UnauthorizedException, ForbiddenException {
+        if (kind == Kind.PUBLIC) {
+            return;
+        }
+        if (!isAuthenticated(session)) {
+            throw new UnauthorizedException();
+        }
+        if (kind == Kind.ROLE && !hasRole(session)) {
+            throw new ForbiddenException(String.join(", ", roles));
+        }
+    }
+
+    private boolean isAuthenticated(CustomSession session) {
+        if (session == null) {
+            return false;
+        }
+        Object authValue = session.getAttribute(authVariable);
+
+        // L'utilisateur est authentifié si la variable existe et n'est pas null/false
+        if (authValue instanceof Boolean) {
+            return (Boolean) authValue;
+        }
+        return authValue != null;
+    }
+
+    private boolean hasRole(CustomSession session) {
+        Object roleValue = session.getAttribute(roleVariable);
+
+        // Cas 1: Le rôle est une String simple
+        if (roleValue instanceof String) {
+            return matches((String) roleValue);
+        }
+
+        // Cas 2: Les rôles sont un tableau de String
+        if (roleValue instanceof String[]) {
+            for (String role : (String[]) roleValue) {
+                if (matches(role)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Cas 3: Les rôles sont une Collection
+        if (roleValue instanceof Collection) {
+            for (Object role : (Collection<?>) roleValue) {
+                if (role != null && matches(role.toString())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(String role) {
+        for (String required : roles) {
+            if (!required.isEmpty() && required.equalsIgnoreCase(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.ROLE ? "ROLE(" + String.join(", ", roles) + ")" : kind.name();
+    }
+}
@@ -0,0 +1,34 @@
+package servlet.session;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Retrouve la session du framework à partir du cookie de la requête
+ */
+public class SessionResolver {
+
+    public static final String SESSION_COOKIE_NAME = "FRAMEWORK_SESSION_ID"; // Changé pour éviter conflit avec Tomcat
+
+    /**
+     * Retourne l'identifiant de session du cookie, ou null
+     */
+    public static String getSessionId(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (SESSION_COOKIE_NAME.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retourne la session existante de la requête (sans en créer), ou null
+     */
+    public static CustomSession find(HttpServletRequest req) {
+        return SessionManager.getSession(getSessionId(req));
+    }
+}
@@ -0,0 +1,134 @@
+package servlet.template;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Expression d'un template : chemin de propriétés ("user.address.city",
+ * "items.0"), littéral (chaîne entre guillemets, nombre, true / false /
+ * null), éventuellement précédé de "not" ou "!" dans une condition.
+ *
+ * Le chemin est découpé une fois à la compilation.
+ */
+final class Expression {
+
+    private final String source;
+    private final String[] path;
+    private final Object literal;
+    private final boolean negated;
+
+    private Expression(String source, String[] path, Object literal, boolean negated) {
+        this.source = source;
+        this.path = path;
+        this.literal = literal;
+        this.negated = negated;
+    }
+
+    static Expression parse(String source, String template, int line) {
+        String text = source.trim();
+        boolean negated = false;
+        if (text.startsWith("!")) {
+            negated = true;
+            text = text.substring(1).trim();
+        } else if (text.startsWith("not ")) {
+            negated = true;
+            text = text.substring(4).trim();
+        }
+        if (text.isEmpty()) {
+            throw new TemplateException(template, line, "expression vide");
+        }
+
+        char first = text.charAt(0);
+        if (first == '"' || first == '\'') {
+            if (text.length() < 2 || text.charAt(text.length() - 1) != first) {
+                throw new TemplateException(template, line, "chaîne non fermée : " + source);
+            }
+            return new Expression(source, null, text.substring(1, text.length() - 1), negated);
+        }
+        if (text.equals("true") || text.equals("false")) {
+            return new Expression(source, null, Boolean.valueOf(text), negated);
+        }
+        if (text.equals("null")) {
+            return new Expression(source, null, null, negated);
+        }
+        if (first == '-' || Character.isDigit(first)) {
+            try {
+                return new Expression(source, null, Long.valueOf(text), negated);
+            } catch (NumberFormatException e) {
+                throw new TemplateException(template, line, "nombre invalide : " + source);
+            }
+        }
+
+        String[] path = text.split("\\.", -1);
+        for (String segment : path) {
+            if (segment.isEmpty() || !isIdentifier(segment)) {
+                throw new TemplateException(template, line, "expression invalide : " + source);
+            }
+        }
+        return new Expression(source, path, null, negated);
+    }
+
+    private static boolean isIdentifier(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '$') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    Object evaluate(RenderContext ctx) {
+        Object value;
+        if (path == null) {
+            value = literal;
+        } else {
+            value = ctx.lookup(path[0]);
+            for (int i = 1; i < path.length && value != null; i++) {
+                value = PropertyAccessor.get(value, path[i]);
+            }
+        }
+        return negated ? !isTrue(value) : value;
+    }
+
+    /**
+     * Valeur de l'expression comme condition
+     */
+    boolean test(RenderContext ctx) {
+        return isTrue(evaluate(ctx));
+    }
+
+    /**
+     * Faux : null, false, 0, chaîne / collection / Map / tableau vides
+     */
+    static boolean isTrue(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue() != 0;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() > 0;
+        }
+        if (value instanceof Collection) {
+            return !((Collection<?>) value).isEmpty();
+        }
+        if (value instanceof Map) {
+            return !((Map<?, ?>) value).isEmpty();
+        }
+        if (value.getClass().isArray()) {
+            return Array.getLength(value) > 0;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
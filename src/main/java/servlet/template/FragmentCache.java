@@ -0,0 +1,68 @@
+package servlet.template;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fragments rendus d'un template ({% cache %}), conservés sous forme de
+ * texte pendant leur durée de vie. Propre à une version compilée du
+ * template : une modification du fichier repart d'un cache vide.
+ */
+final class FragmentCache {
+
+    private static final class Fragment {
+        final String text;
+        final long expiresAt;
+
+        Fragment(String text, long expiresAt) {
+            this.text = text;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<String, Fragment> fragments = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    FragmentCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Texte encore valide pour la clé, ou null
+     */
+    String get(String key, long now) {
+        Fragment fragment = fragments.get(key);
+        if (fragment != null && now - fragment.expiresAt < 0) {
+            hits.increment();
+            return fragment.text;
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(String key, String text, long expiresAt, long now) {
+        if (fragments.size() >= maxEntries && !fragments.containsKey(key)) {
+            // Plein : les fragments expirés laissent la place, sinon rien n'est conservé
+            fragments.values().removeIf(f -> now - f.expiresAt >= 0);
+            if (fragments.size() >= maxEntries) {
+                return;
+            }
+        }
+        fragments.put(key, new Fragment(text, expiresAt));
+    }
+
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    int size() {
+        return fragments.size();
+    }
+}
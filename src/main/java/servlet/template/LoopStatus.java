@@ -0,0 +1,32 @@
+package servlet.template;
+
+/**
+ * Variable "loop" d'une boucle {% for %} : loop.index (à partir de 0),
+ * loop.count (à partir de 1), loop.first, loop.last
+ */
+public final class LoopStatus {
+
+    private int index = -1;
+    private boolean last;
+
+    void next(boolean last) {
+        this.index++;
+        this.last = last;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return index + 1;
+    }
+
+    public boolean isFirst() {
+        return index == 0;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+}
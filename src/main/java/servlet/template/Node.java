@@ -0,0 +1,285 @@
+package servlet.template;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+/**
+ * Arbre compilé d'un template : chaque nœud s'écrit directement dans la
+ * sortie du rendu, sans réanalyse du texte.
+ */
+abstract class Node {
+
+    abstract void render(RenderContext ctx) throws IOException;
+
+    /**
+     * Texte brut du template
+     */
+    static final class Text extends Node {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        @Override
+        void render(RenderContext ctx) throws IOException {
+            ctx.out.write(text);
+        }
+    }
+
+    /**
+     * ${expr} (échappé en HTML) ou $!{expr} (brut)
+     */
+    static final class Output extends Node {
+        private final Expression expression;
+        private final boolean escape;
+
+        Output(Expression expression, boolean escape) {
+            this.expression = expression;
+            this.escape = escape;
+        }
+
+        @Override
+        void render(RenderContext ctx) throws IOException {
+            Object value = expression.evaluate(ctx);
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (escape) {
+                escapeHtml(text, ctx.out);
+            } else {
+                ctx.out.write(text);
+            }
+        }
+    }
+
+    /**
+     * Suite de nœuds
+     */
+    static final class Block extends Node {
+        private final Node[] children;
+
+        Block(List<Node> children) {
+            this.children = children.toArray(new Node[0]);
+        }
+
+        @Override
+        void render(RenderContext ctx) throws IOException {
+            for (Node child : children) {
+                child.render(ctx);
+            }
+        }
+    }
+
+    /**
+     * {% if expr %} ... {% else %} ... {% end %}
+     */
+    static final class If extends Node {
+        private final Expression condition;
+        private final Node then;
+        private final Node otherwise;
+
+        If(Expression condition, Node then, Node otherwise) {
+            this.condition = condition;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        void render(RenderContext ctx) throws IOException {
+            if (condition.test(ctx)) {
+                then.render(ctx);
+            } else if (otherwise != null) {
+                otherwise.render(ctx);
+            }
+        }
+    }
+
+    /**
+     * {% for item in items %} ... {% else %} (vide) ... {% end %} : Iterable,
+     * tableau, Map (entrées), Iterator ou Stream
+     */
+    static final class For extends Node {
+        private final String variable;
+        private final Expression items;
+        private final Node body;
+        private final Node empty;
+
+        For(String variable, Expression items, Node body, Node empty) {
+            this.variable = variable;
+            this.items = items;
+            this.body = body;
+            this.empty = empty;
+        }
+
+        @Override
+        void render(RenderContext ctx) throws IOException {
+            Object value = items.evaluate(ctx);
+            Iterator<?> iterator = iterator(value);
+            try {
+                if (iterator == null || !iterator.hasNext()) {
+                    if (empty != null) {
+                        empty.render(ctx);
+                    }
+                    return;
+                }
+                LoopStatus status = new LoopStatus();
+                ctx.push("loop", status);
+                ctx.push(variable, null);
+                try {
+                    while (iterator.hasNext()) {
+                        Object item = iterator.next();
+                        status.next(!iterator.hasNext());
+                        ctx.set(item);
+                        body.render(ctx);
+                    }
+                } finally {
+                    ctx.pop();
+                    ctx.pop();
+                }
+            } finally {
+                if (value instanceof BaseStream) {
+                    ((BaseStream<?, ?>) value).close();
+                }
+            }
+        }
+
+        private static Iterator<?> iterator(Object value) {
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof Iterable) {
+                return ((Iterable<?>) value).iterator();
+            }
+            if (value instanceof Map) {
+                return ((Map<?, ?>) value).entrySet().iterator();
+            }
+            if (value instanceof Iterator) {
+                return (Iterator<?>) value;
+            }
+            if (value instanceof BaseStream) {
+                return ((BaseStream<?, ?>) value).iterator();
+            }
+            if (value.getClass().isArray()) {
+                int length = Array.getLength(value);
+                return new Iterator<Object>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < length;
+                    }
+
+                    @Override
+                    public Object next() {
+                        return Array.get(value, index++);
+                    }
+                };
+            }
+            return List.of(value).iterator();
+        }
+    }
+
+    /**
+     * {% include "chemin" %} : template compilé résolu au rendu (il peut être
+     * modifié indépendamment)
+     */
+    static final class Include extends Node {
+        private final String path;
+
+        Include(String path) {
+            this.path = path;
+        }
+
+        @Override
+        void render(RenderContext ctx) throws IOException {
+            ctx.enter(path);
+            try {
+                ctx.engine.getTemplate(path).getRoot().render(ctx);
+            } finally {
+                ctx.leave();
+            }
+        }
+    }
+
+    /**
+     * {% cache "nom" secondes [expr] %} ... {% end %} : le texte rendu est
+     * réutilisé pendant la durée donnée, par valeur de expr
+     */
+    static final class Cache extends Node {
+        private final String name;
+        private final long ttlNanos;
+        private final Expression vary;
+        private final Node body;
+        private final FragmentCache fragments;
+
+        Cache(String name, long ttlSeconds, Expression vary, Node body, FragmentCache fragments) {
+            this.name = name;
+            this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+            this.vary = vary;
+            this.body = body;
+            this.fragments = fragments;
+        }
+
+        @Override
+        void render(RenderContext ctx) throws IOException {
+            String key = vary != null ? name + "|" + vary.evaluate(ctx) : name;
+            long now = System.nanoTime();
+            String text = fragments.get(key, now);
+            if (text == null) {
+                Writer out = ctx.out;
+                StringWriter buffer = new StringWriter(256);
+                ctx.out = buffer;
+                try {
+                    body.render(ctx);
+                } finally {
+                    ctx.out = out;
+                }
+                text = buffer.toString();
+                fragments.put(key, text, now + ttlNanos, now);
+            }
+            ctx.out.write(text);
+        }
+    }
+
+    /**
+     * Échappement HTML (& < > " '), sans copie si le texte n'en a pas besoin
+     */
+    static void escapeHtml(String text, Writer out) throws IOException {
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String replacement;
+            switch (text.charAt(i)) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                case '\'':
+                    replacement = "&#39;";
+                    break;
+                default:
+                    continue;
+            }
+            out.write(text, start, i - start);
+            out.write(replacement);
+            start = i + 1;
+        }
+        out.write(text, start, text.length() - start);
+    }
+}
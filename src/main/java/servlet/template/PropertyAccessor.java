@@ -0,0 +1,128 @@
+package servlet.template;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lecture d'une propriété d'un objet par son nom : clé d'une Map, indice
+ * d'une liste ou d'un tableau, getter (getX / isX), accesseur de record ou
+ * champ public. L'accès trouvé est mis en cache par classe et par nom : la
+ * réflexion n'est faite qu'au premier rendu.
+ *
+ * Une propriété absente vaut null (comme en EL), sans erreur.
+ */
+final class PropertyAccessor {
+
+    private interface Accessor {
+        Object get(Object target) throws ReflectiveOperationException;
+    }
+
+    private static final Accessor NONE = target -> null;
+
+    private static final Map<Class<?>, Map<String, Accessor>> ACCESSORS = new ConcurrentHashMap<>();
+
+    private PropertyAccessor() {
+    }
+
+    static Object get(Object target, String name) {
+        if (target == null) {
+            return null;
+        }
+        if (target instanceof Map) {
+            return ((Map<?, ?>) target).get(name);
+        }
+        if (target instanceof List || target.getClass().isArray()) {
+            return element(target, name);
+        }
+        Accessor accessor = ACCESSORS.computeIfAbsent(target.getClass(), c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> find(target.getClass(), n));
+        try {
+            return accessor.get(target);
+        } catch (ReflectiveOperationException e) {
+            throw new TemplateException("Lecture de " + target.getClass().getSimpleName() + "." + name
+                    + " impossible", e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * Élément d'indice name, ou size / length
+     */
+    private static Object element(Object target, String name) {
+        boolean list = target instanceof List;
+        int size = list ? ((List<?>) target).size() : Array.getLength(target);
+        if (name.equals("size") || name.equals("length")) {
+            return size;
+        }
+        int index;
+        try {
+            index = Integer.parseInt(name);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        return list ? ((List<?>) target).get(index) : Array.get(target, index);
+    }
+
+    private static Accessor find(Class<?> type, String name) {
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String candidate : new String[] { "get" + suffix, "is" + suffix, name }) {
+            Method method = publicMethod(type, candidate);
+            if (method != null && method.getParameterCount() == 0 && method.getReturnType() != void.class) {
+                return method::invoke;
+            }
+        }
+        try {
+            Field field = type.getField(name);
+            if (!Modifier.isStatic(field.getModifiers())) {
+                return field::get;
+            }
+        } catch (NoSuchFieldException e) {
+            // pas de champ public de ce nom
+        }
+        return NONE;
+    }
+
+    /**
+     * Méthode publique appelable : déclarée par une classe ou une interface
+     * publique (le getter d'une classe interne privée passe par son interface)
+     */
+    private static Method publicMethod(Class<?> type, String name) {
+        Method method;
+        try {
+            method = type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            return method;
+        }
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            if (c != type && Modifier.isPublic(c.getModifiers())) {
+                Method inherited = publicMethod(c, name);
+                if (inherited != null) {
+                    return inherited;
+                }
+            }
+            for (Class<?> i : c.getInterfaces()) {
+                Method inherited = publicMethod(i, name);
+                if (inherited != null) {
+                    return inherited;
+                }
+            }
+        }
+        // Classe non publique (contrôleur, classe interne) : accès forcé
+        try {
+            method.setAccessible(true);
+            return method;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package servlet.template;
+
+import java.io.Writer;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * État d'un rendu : sortie, modèle (Map du ModelView, lue sans copie),
+ * variables de boucle et requête. Un nom absent du modèle est cherché dans
+ * les attributs de la requête (session, attributs posés par les filtres).
+ */
+final class RenderContext {
+
+    private static final int MAX_DEPTH = 32;
+
+    final TemplateEngine engine;
+    private final Map<String, ?> model;
+    private final HttpServletRequest request;
+    Writer out;
+    private Local locals;
+    private int depth;
+
+    /**
+     * Variable locale (boucle), masquant le modèle tant qu'elle est visible
+     */
+    private static final class Local {
+        final String name;
+        Object value;
+        final Local parent;
+
+        Local(String name, Object value, Local parent) {
+            this.name = name;
+            this.value = value;
+            this.parent = parent;
+        }
+    }
+
+    RenderContext(TemplateEngine engine, Map<String, ?> model, HttpServletRequest request, Writer out) {
+        this.engine = engine;
+        this.model = model;
+        this.request = request;
+        this.out = out;
+    }
+
+    Object lookup(String name) {
+        for (Local local = locals; local != null; local = local.parent) {
+            if (local.name.equals(name)) {
+                return local.value;
+            }
+        }
+        Object value = model.get(name);
+        if (value == null && request != null && !model.containsKey(name)) {
+            value = request.getAttribute(name);
+        }
+        return value;
+    }
+
+    void push(String name, Object value) {
+        locals = new Local(name, value, locals);
+    }
+
+    /**
+     * Remplace la valeur de la dernière variable poussée (itération suivante)
+     */
+    void set(Object value) {
+        locals.value = value;
+    }
+
+    void pop() {
+        locals = locals.parent;
+    }
+
+    /**
+     * Entrée dans un template inclus ; échoue au-delà de MAX_DEPTH (include
+     * récursif)
+     */
+    void enter(String template) {
+        if (++depth > MAX_DEPTH) {
+            throw new TemplateException("Inclusions imbriquées au-delà de " + MAX_DEPTH + " niveaux : " + template,
+                    null);
+        }
+    }
+
+    void leave() {
+        depth--;
+    }
+}
@@ -0,0 +1,64 @@
+package servlet.template;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Template compilé : arbre de nœuds et cache de ses fragments. Sans état
+ * par requête, partagé par tous les rendus.
+ */
+public final class Template {
+
+    private final String name;
+    private final Node root;
+    private final FragmentCache fragments;
+    private final TemplateEngine engine;
+
+    Template(String name, Node root, FragmentCache fragments, TemplateEngine engine) {
+        this.name = name;
+        this.root = root;
+        this.fragments = fragments;
+        this.engine = engine;
+    }
+
+    /**
+     * Analyse le source d'un template
+     */
+    static Template compile(String name, String source, TemplateEngine engine, int maxFragments) {
+        FragmentCache fragments = new FragmentCache(maxFragments);
+        return new Template(name, new TemplateParser(name, source, fragments).parse(), fragments, engine);
+    }
+
+    /**
+     * Écrit le rendu dans out, le modèle étant lu directement (aucune copie)
+     *
+     * @param request requête dont les attributs complètent le modèle, ou null
+     */
+    public void render(Map<String, ?> model, HttpServletRequest request, Writer out) throws IOException {
+        root.render(new RenderContext(engine, model != null ? model : Map.of(), request, out));
+    }
+
+    Node getRoot() {
+        return root;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getFragmentHitCount() {
+        return fragments.getHitCount();
+    }
+
+    public long getFragmentMissCount() {
+        return fragments.getMissCount();
+    }
+
+    @Override
+    public String toString() {
+        return "Template{" + name + ", fragments=" + fragments.size() + "}";
+    }
+}
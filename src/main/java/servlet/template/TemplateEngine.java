@@ -0,0 +1,225 @@
+package servlet.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.ServletContext;
+import servlet.config.FrameworkConfig;
+import servlet.view.ResolvedView;
+import servlet.view.ViewResolver;
+
+/**
+ * Moteur de templates intégré : une vue de ModelView dont l'extension figure
+ * dans framework.template.extensions (défaut : tpl) est rendue directement
+ * dans la réponse, sans RequestDispatcher ni JSP.
+ *
+ * Chaque template est analysé une fois en arbre de nœuds, conservé jusqu'à ce
+ * que le ViewResolver signale une nouvelle résolution (surveillance des
+ * fichiers ou ttl) et que la date du fichier ait changé.
+ * framework.template.precompile compile tous les templates au démarrage :
+ * les erreurs de syntaxe apparaissent dans les journaux avant la première
+ * requête.
+ */
+public class TemplateEngine {
+
+    private final ServletContext context;
+    private final ViewResolver views;
+    private final String[] extensions;
+    private final String contentType;
+    private final int maxFragments;
+    private final Map<String, Compiled> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Template compilé et résolution de la vue qui l'a produit
+     */
+    private static final class Compiled {
+        final Template template;
+        final ResolvedView view;
+        final long lastModified;
+
+        Compiled(Template template, ResolvedView view, long lastModified) {
+            this.template = template;
+            this.view = view;
+            this.lastModified = lastModified;
+        }
+    }
+
+    public TemplateEngine(ServletContext context, ViewResolver views) {
+        this.context = context;
+        this.views = views;
+        FrameworkConfig config = FrameworkConfig.getInstance();
+        String[] configured = config.getString("framework.template.extensions", "tpl")
+                .toLowerCase(Locale.ROOT).split("\\s*,\\s*");
+        List<String> suffixes = new ArrayList<>();
+        for (String extension : configured) {
+            if (!extension.isBlank()) {
+                suffixes.add("." + (extension.startsWith(".") ? extension.substring(1) : extension));
+            }
+        }
+        this.extensions = suffixes.toArray(new String[0]);
+        this.contentType = config.getString("framework.template.content.type", "text/html;charset=UTF-8");
+        this.maxFragments = config.getInt("framework.template.fragments.max", 1000);
+    }
+
+    /**
+     * Vrai si la vue est rendue par ce moteur (d'après son extension)
+     */
+    public boolean handles(String viewPath) {
+        String path = viewPath.toLowerCase(Locale.ROOT);
+        for (String extension : extensions) {
+            if (path.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Template compilé d'une vue existante
+     */
+    public Template getTemplate(ResolvedView view) {
+        Compiled compiled = templates.get(view.getPath());
+        if (compiled != null && compiled.view == view) {
+            return compiled.template;
+        }
+        // Vue résolue à nouveau (fichiers modifiés, ttl) : recompilée si sa date a changé
+        long lastModified = lastModified(view);
+        if (compiled != null && lastModified >= 0 && compiled.lastModified == lastModified) {
+            templates.put(view.getPath(), new Compiled(compiled.template, view, lastModified));
+            return compiled.template;
+        }
+        Template template = compile(view.getPath());
+        templates.put(view.getPath(), new Compiled(template, view, lastModified));
+        return template;
+    }
+
+    /**
+     * Template compilé d'un chemin de l'application ({% include %})
+     */
+    public Template getTemplate(String path) {
+        String normalized = normalize(path);
+        ResolvedView view = views.resolve(normalized);
+        if (!view.exists()) {
+            throw new TemplateException("Template introuvable : " + normalized, null);
+        }
+        return getTemplate(view);
+    }
+
+    private Template compile(String path) {
+        String source;
+        try (InputStream in = context.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new TemplateException("Template introuvable : " + path, null);
+            }
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new TemplateException("Lecture du template " + path + " impossible", e);
+        }
+        return Template.compile(path, source, this, maxFragments);
+    }
+
+    private static long lastModified(ResolvedView view) {
+        if (view.getRealPath() == null) {
+            return -1;
+        }
+        try {
+            return Files.getLastModifiedTime(Paths.get(view.getRealPath())).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Résout "." et ".." ; un chemin sortant de l'application est refusé
+     */
+    private static String normalize(String path) {
+        Deque<String> segments = new ArrayDeque<>();
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty() || segment.equals(".")) {
+                continue;
+            }
+            if (segment.equals("..")) {
+                if (segments.pollLast() == null) {
+                    throw new TemplateException("Chemin hors de l'application : " + path, null);
+                }
+            } else {
+                segments.addLast(segment);
+            }
+        }
+        return "/" + String.join("/", segments);
+    }
+
+    /**
+     * Compile tous les templates de l'application (hors WEB-INF/lib et
+     * WEB-INF/classes)
+     *
+     * @return nombre de templates compilés
+     */
+    public int precompile() {
+        String realRoot = context.getRealPath("/");
+        if (realRoot == null) {
+            System.err.println("[TemplateEngine] Application non dépliée : pas de précompilation");
+            return 0;
+        }
+        Path root = Paths.get(realRoot);
+        Path lib = root.resolve("WEB-INF").resolve("lib");
+        Path classes = root.resolve("WEB-INF").resolve("classes");
+        List<String> paths = new ArrayList<>();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return dir.equals(lib) || dir.equals(classes) ? FileVisitResult.SKIP_SUBTREE
+                            : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    String path = "/" + root.relativize(file).toString().replace('\\', '/');
+                    if (attrs.isRegularFile() && handles(path)) {
+                        paths.add(path);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("[TemplateEngine] Parcours de " + root + " impossible : " + e);
+        }
+
+        long start = System.nanoTime();
+        int compiled = 0;
+        for (String path : paths) {
+            try {
+                getTemplate(path);
+                compiled++;
+            } catch (TemplateException e) {
+                System.err.println("[TemplateEngine] " + e.getMessage());
+            }
+        }
+        System.out.println("[TemplateEngine] " + compiled + "/" + paths.size() + " template(s) compilé(s) en "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return compiled;
+    }
+
+    public int size() {
+        return templates.size();
+    }
+}
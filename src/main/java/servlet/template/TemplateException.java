@@ -0,0 +1,16 @@
+package servlet.template;
+
+/**
+ * Template invalide (syntaxe, bloc non fermé, include introuvable...) : le
+ * message donne le template et la ligne
+ */
+public class TemplateException extends RuntimeException {
+
+    public TemplateException(String template, int line, String message) {
+        super(template + ":" + line + " : " + message);
+    }
+
+    public TemplateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,257 @@
+package servlet.template;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Analyse d'un template en arbre de nœuds (une seule fois par version du
+ * fichier).
+ *
+ * <pre>
+ * ${user.name}                 valeur échappée en HTML
+ * $!{page.html}                valeur brute
+ * {% if expr %} {% else %} {% end %}
+ * {% for item in items %} ${loop.count} {% else %} (vide) {% end %}
+ * {% include "partiel.tpl" %}  relatif au template, ou absolu ("/...")
+ * {% cache "nom" 60 expr %} {% end %}   fragment conservé 60 s par valeur de expr
+ * {# commentaire #}
+ * \${ pour un "${" littéral
+ * </pre>
+ */
+final class TemplateParser {
+
+    private final String name;
+    private final String source;
+    private final FragmentCache fragments;
+    private int pos;
+    private int line = 1;
+
+    /**
+     * Bloc ouvert ({% if %}, {% for %}, {% cache %}) en attente de son
+     * {% end %}
+     */
+    private static final class Open {
+        final String[] tag;
+        final int line;
+        final List<Node> body = new ArrayList<>();
+        List<Node> otherwise;
+
+        Open(String[] tag, int line) {
+            this.tag = tag;
+            this.line = line;
+        }
+
+        List<Node> current() {
+            return otherwise != null ? otherwise : body;
+        }
+    }
+
+    TemplateParser(String name, String source, FragmentCache fragments) {
+        this.name = name;
+        this.source = source;
+        this.fragments = fragments;
+    }
+
+    Node parse() {
+        List<Node> root = new ArrayList<>();
+        Deque<Open> open = new ArrayDeque<>();
+        StringBuilder text = new StringBuilder();
+
+        while (pos < source.length()) {
+            char c = source.charAt(pos);
+            if (c == '\\' && source.startsWith("${", pos + 1)) {
+                text.append("${");
+                pos += 3;
+                continue;
+            }
+            boolean raw = source.startsWith("$!{", pos);
+            if (raw || source.startsWith("${", pos)) {
+                flush(text, open, root);
+                int start = pos + (raw ? 3 : 2);
+                String expression = until(start, "}");
+                target(open, root).add(new Node.Output(Expression.parse(expression, name, line), !raw));
+                continue;
+            }
+            if (source.startsWith("{#", pos)) {
+                flush(text, open, root);
+                until(pos + 2, "#}");
+                continue;
+            }
+            if (source.startsWith("{%", pos)) {
+                flush(text, open, root);
+                int tagLine = line;
+                String[] tag = tokens(until(pos + 2, "%}"), tagLine);
+                directive(tag, tagLine, open, root);
+                continue;
+            }
+            if (c == '\n') {
+                line++;
+            }
+            text.append(c);
+            pos++;
+        }
+        flush(text, open, root);
+        if (!open.isEmpty()) {
+            Open block = open.peek();
+            throw new TemplateException(name, block.line, "{% " + block.tag[0] + " %} sans {% end %}");
+        }
+        return block(root);
+    }
+
+    private void directive(String[] tag, int tagLine, Deque<Open> open, List<Node> root) {
+        if (tag.length == 0) {
+            throw new TemplateException(name, tagLine, "directive vide");
+        }
+        switch (tag[0]) {
+            case "if":
+                expect(tag, tag.length >= 2, tagLine, "{% if expr %}");
+                open.push(new Open(tag, tagLine));
+                return;
+            case "for":
+                expect(tag, tag.length == 4 && tag[2].equals("in"), tagLine, "{% for item in items %}");
+                open.push(new Open(tag, tagLine));
+                return;
+            case "cache":
+                expect(tag, tag.length == 3 || tag.length == 4, tagLine, "{% cache \"nom\" secondes [expr] %}");
+                open.push(new Open(tag, tagLine));
+                return;
+            case "else": {
+                Open block = open.peek();
+                if (block == null || block.tag[0].equals("cache") || block.otherwise != null) {
+                    throw new TemplateException(name, tagLine, "{% else %} hors d'un {% if %} ou {% for %}");
+                }
+                block.otherwise = new ArrayList<>();
+                return;
+            }
+            case "end": {
+                Open block = open.poll();
+                if (block == null) {
+                    throw new TemplateException(name, tagLine, "{% end %} sans bloc ouvert");
+                }
+                target(open, root).add(close(block));
+                return;
+            }
+            case "include":
+                expect(tag, tag.length == 2, tagLine, "{% include \"chemin\" %}");
+                target(open, root).add(new Node.Include(resolve(literal(tag[1], tagLine))));
+                return;
+            default:
+                throw new TemplateException(name, tagLine, "directive inconnue : " + tag[0]);
+        }
+    }
+
+    private Node close(Open block) {
+        String[] tag = block.tag;
+        Node body = block(block.body);
+        Node otherwise = block.otherwise != null ? block(block.otherwise) : null;
+        switch (tag[0]) {
+            case "if":
+                return new Node.If(Expression.parse(join(tag, 1), name, block.line), body, otherwise);
+            case "for":
+                return new Node.For(tag[1], Expression.parse(tag[3], name, block.line), body, otherwise);
+            default: {
+                long ttl;
+                try {
+                    ttl = Long.parseLong(tag[2]);
+                } catch (NumberFormatException e) {
+                    throw new TemplateException(name, block.line, "durée du cache invalide : " + tag[2]);
+                }
+                Expression vary = tag.length == 4 ? Expression.parse(tag[3], name, block.line) : null;
+                return new Node.Cache(name + "#" + literal(tag[1], block.line), ttl, vary, body, fragments);
+            }
+        }
+    }
+
+    private void expect(String[] tag, boolean valid, int tagLine, String syntax) {
+        if (!valid) {
+            throw new TemplateException(name, tagLine, "syntaxe attendue " + syntax + " : {% " + join(tag, 0) + " %}");
+        }
+    }
+
+    /**
+     * Texte jusqu'au délimiteur de fin (exclu), la position passant après lui
+     */
+    private String until(int start, String end) {
+        int stop = source.indexOf(end, start);
+        if (stop < 0) {
+            throw new TemplateException(name, line, "\"" + end + "\" manquant");
+        }
+        String content = source.substring(start, stop);
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        pos = stop + end.length();
+        return content;
+    }
+
+    /**
+     * Mots de la directive, les chaînes entre guillemets restant entières
+     */
+    private String[] tokens(String content, int tagLine) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < content.length()) {
+            char c = content.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            if (c == '"' || c == '\'') {
+                int close = content.indexOf(c, i + 1);
+                if (close < 0) {
+                    throw new TemplateException(name, tagLine, "chaîne non fermée : " + content.trim());
+                }
+                i = close + 1;
+            } else {
+                while (i < content.length() && !Character.isWhitespace(content.charAt(i))) {
+                    i++;
+                }
+            }
+            tokens.add(content.substring(start, i));
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private String literal(String token, int tagLine) {
+        if (token.length() < 2 || (token.charAt(0) != '"' && token.charAt(0) != '\'')) {
+            throw new TemplateException(name, tagLine, "chaîne entre guillemets attendue : " + token);
+        }
+        return token.substring(1, token.length() - 1);
+    }
+
+    /**
+     * Chemin d'un include, relatif au répertoire du template courant
+     */
+    private String resolve(String path) {
+        if (path.startsWith("/")) {
+            return path;
+        }
+        int slash = name.lastIndexOf('/');
+        return (slash >= 0 ? name.substring(0, slash + 1) : "/") + path;
+    }
+
+    private static String join(String[] tag, int from) {
+        return String.join(" ", Arrays.asList(tag).subList(from, tag.length));
+    }
+
+    private void flush(StringBuilder text, Deque<Open> open, List<Node> root) {
+        if (text.length() > 0) {
+            target(open, root).add(new Node.Text(text.toString()));
+            text.setLength(0);
+        }
+    }
+
+    private static List<Node> target(Deque<Open> open, List<Node> root) {
+        return open.isEmpty() ? root : open.peek().current();
+    }
+
+    private static Node block(List<Node> nodes) {
+        return nodes.size() == 1 ? nodes.get(0) : new Node.Block(nodes);
+    }
+}
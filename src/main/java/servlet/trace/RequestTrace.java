@@ -0,0 +1,83 @@
+package servlet.trace;
+
+import java.time.Instant;
+
+/**
+ * Trace d'une requête : texte accumulé par FrontServlet, les binders et le
+ * rendu, puis statut et durée une fois la requête terminée.
+ *
+ * Le texte est un StringBuilder passé tel quel aux composants (paramètre
+ * "debug", null quand la requête n'est pas tracée).
+ */
+public class RequestTrace {
+
+    private final String id;
+    private final String httpMethod;
+    private final String uri;
+    private final long timestamp;
+    private final long startNanos;
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    private volatile int status;
+    private volatile long durationNanos = -1;
+
+    RequestTrace(String id, String httpMethod, String uri) {
+        this.id = id;
+        this.httpMethod = httpMethod;
+        this.uri = uri;
+        this.timestamp = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Durée en nanosecondes, -1 tant que la requête n'est pas terminée
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Texte de la trace, à compléter pendant la requête
+     */
+    public StringBuilder getBuffer() {
+        return buffer;
+    }
+
+    void finish(int status) {
+        this.status = status;
+        this.durationNanos = System.nanoTime() - startNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(buffer.length() + 128)
+                .append("========== TRACE ").append(id).append(" ==========\n")
+                .append(Instant.ofEpochMilli(timestamp)).append("  ")
+                .append(httpMethod).append(' ').append(uri).append('\n');
+        if (durationNanos >= 0) {
+            sb.append("Statut : ").append(status)
+                    .append("  Durée : ").append(durationNanos / 1000).append(" µs\n");
+        }
+        return sb.append(buffer).toString();
+    }
+}
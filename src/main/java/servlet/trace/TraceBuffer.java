@@ -0,0 +1,62 @@
+package servlet.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tampon circulaire borné des dernières traces terminées : au-delà de la
+ * capacité, la plus ancienne est écrasée. L'ajout ne prend aucun verrou.
+ */
+public class TraceBuffer {
+
+    private final AtomicReferenceArray<RequestTrace> slots;
+    private final AtomicLong next = new AtomicLong();
+
+    public TraceBuffer(int capacity) {
+        this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public void add(RequestTrace trace) {
+        long seq = next.getAndIncrement();
+        slots.set((int) (seq % slots.length()), trace);
+    }
+
+    /**
+     * Traces conservées, de la plus récente à la plus ancienne
+     */
+    public List<RequestTrace> recent(int limit) {
+        List<RequestTrace> result = new ArrayList<>();
+        long last = next.get() - 1;
+        int capacity = slots.length();
+        for (long seq = last; seq >= 0 && seq > last - capacity && result.size() < limit; seq--) {
+            RequestTrace trace = slots.get((int) (seq % capacity));
+            if (trace != null) {
+                result.add(trace);
+            }
+        }
+        return result;
+    }
+
+    public RequestTrace find(String id) {
+        for (int i = 0; i < slots.length(); i++) {
+            RequestTrace trace = slots.get(i);
+            if (trace != null && trace.getId().equals(id)) {
+                return trace;
+            }
+        }
+        return null;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Nombre total de traces reçues depuis le démarrage
+     */
+    public long total() {
+        return next.get();
+    }
+}
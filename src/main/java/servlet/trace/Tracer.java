@@ -0,0 +1,149 @@
+package servlet.trace;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.servlet.http.HttpServletRequest;
+import servlet.config.FrameworkConfig;
+import servlet.security.ForbiddenException;
+import servlet.security.SecurityConfig;
+import servlet.security.SecurityPolicy;
+import servlet.security.UnauthorizedException;
+import servlet.session.SessionResolver;
+
+/**
+ * Décide quelles requêtes sont tracées et conserve leurs traces.
+ *
+ * Désactivé par défaut (framework.trace.enabled=false) : start() renvoie alors
+ * null sans rien allouer, et tout le code de trace est court-circuité par les
+ * tests "debug != null". Une fois activé, une requête est tracée si elle est
+ * tirée au sort (framework.trace.sample, en pourcentage) ou si elle porte
+ * l'en-tête framework.trace.header (X-Trace par défaut) avec pour valeur le
+ * jeton secret framework.trace.token (sans jeton, l'en-tête est ignoré).
+ *
+ * Les traces ne sont jamais écrites dans le corps des réponses : elles sont
+ * conservées dans un TraceBuffer (framework.trace.buffer.size). Leur
+ * consultation sur framework.trace.path (/_traces par défaut) n'est exposée
+ * qu'avec framework.trace.endpoint=true, et réservée aux rôles de
+ * framework.trace.endpoint.roles ou, sans rôle configuré, aux requêtes
+ * locales (loopback ; derrière un proxy local, configurer un rôle).
+ * L'identifiant est renvoyé dans l'en-tête X-Trace-Id.
+ *
+ * Les valeurs sensibles (identifiant de session, valeurs des paramètres,
+ * chemins d'upload) sont masquées avec mask() avant d'entrer dans une trace.
+ */
+public class Tracer {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final boolean enabled;
+    private final String header;
+    private final byte[] token;
+    private final double sampleRate;
+    private final String path;
+    private final SecurityPolicy endpointPolicy;
+    private final TraceBuffer buffer;
+    private final AtomicLong ids = new AtomicLong();
+
+    public Tracer() {
+        FrameworkConfig config = FrameworkConfig.getInstance();
+        this.enabled = config.getBoolean("framework.trace.enabled", false);
+        this.header = config.getString("framework.trace.header", "X-Trace");
+        String secret = config.getString("framework.trace.token", "");
+        this.token = secret.isEmpty() ? null : secret.getBytes(StandardCharsets.UTF_8);
+        this.sampleRate = Math.max(0, Math.min(100, config.getInt("framework.trace.sample", 0))) / 100.0;
+        this.path = config.getBoolean("framework.trace.endpoint", false)
+                ? config.getString("framework.trace.path", "/_traces")
+                : "";
+        String roles = config.getString("framework.trace.endpoint.roles", "").trim();
+        this.endpointPolicy = roles.isEmpty()
+                ? null
+                : SecurityPolicy.role(SecurityConfig.getInstance(), roles.split("\\s*,\\s*"));
+        this.buffer = new TraceBuffer(config.getInt("framework.trace.buffer.size", 256));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Commence la trace de la requête, ou renvoie null si elle n'est pas tracée
+     */
+    public RequestTrace start(HttpServletRequest req) {
+        if (!enabled || !shouldTrace(req)) {
+            return null;
+        }
+        return new RequestTrace(Long.toString(ids.incrementAndGet(), 36), req.getMethod(), req.getRequestURI());
+    }
+
+    private boolean shouldTrace(HttpServletRequest req) {
+        if (token != null && !header.isEmpty()) {
+            String value = req.getHeader(header);
+            if (value != null
+                    && MessageDigest.isEqual(token, value.trim().getBytes(StandardCharsets.UTF_8))) {
+                return true;
+            }
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    public void finish(RequestTrace trace, int status) {
+        trace.finish(status);
+        buffer.add(trace);
+    }
+
+    /**
+     * Indique si l'URL est celle de consultation des traces (traçage et
+     * point de consultation activés)
+     */
+    public boolean isTracePath(String requestPath) {
+        return enabled && !path.isEmpty() && path.equals(requestPath);
+    }
+
+    /**
+     * Vérifie l'accès au point de consultation : rôle requis si
+     * framework.trace.endpoint.roles est défini, sinon requête locale
+     *
+     * @throws UnauthorizedException si l'utilisateur n'est pas authentifié
+     * @throws ForbiddenException si l'accès est refusé
+     */
+    public void checkAccess(HttpServletRequest req) throws UnauthorizedException, ForbiddenException {
+        if (endpointPolicy != null) {
+            endpointPolicy.check(SessionResolver.find(req));
+        } else if (!isLoopback(req.getRemoteAddr())) {
+            throw new ForbiddenException();
+        }
+    }
+
+    private static boolean isLoopback(String address) {
+        if (address == null || address.isEmpty()) {
+            return false;
+        }
+        // Adresse littérale uniquement (IPv4 ou IPv6) : aucune résolution DNS
+        boolean literal = address.indexOf(':') >= 0
+                || address.chars().allMatch(ch -> ch == '.' || (ch >= '0' && ch <= '9'));
+        if (!literal) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(address).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Valeur masquée pour une trace : seule sa longueur est conservée
+     */
+    public static String mask(String value) {
+        return value == null ? "null" : "*** (" + value.length() + " car.)";
+    }
+
+    public TraceBuffer getBuffer() {
+        return buffer;
+    }
+}
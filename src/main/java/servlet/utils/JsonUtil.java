@@ -1,15 +1,41 @@
 package servlet.utils;
 
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import servlet.api.ApiResponse;
+import servlet.response.StreamingJsonWriter;
 
 public class JsonUtil {
     private static final ObjectMapper mapper = new ObjectMapper();
 
+    // Writers des réponses @Json, par type de retour déclaré (compact / indenté)
+    private static final Map<Type, ObjectWriter> RESPONSE_WRITERS = new ConcurrentHashMap<>();
+    private static final Map<Type, ObjectWriter> PRETTY_RESPONSE_WRITERS = new ConcurrentHashMap<>();
+
+    private static final ObjectWriter ANY_RESPONSE_WRITER;
+
+    // Readers des paramètres @RequestBody, par type générique du paramètre
+    private static final Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+
     static {
-        // Configuration du mapper
-        mapper.enable(SerializationFeature.INDENT_OUTPUT); // Pretty print
+        // Configuration du mapper : sortie compacte, l'indentation est demandée
+        // au cas par cas (writer indenté, ?pretty)
         mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        // Le flux de la réponse appartient au conteneur : ne pas le fermer
+        mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        ANY_RESPONSE_WRITER = mapper.writerFor(ApiResponse.class);
     }
 
     /**
@@ -19,6 +45,122 @@ public class JsonUtil {
         return mapper.writeValueAsString(obj);
     }
 
+    /**
+     * Writer de la réponse d'une méthode @Json, mis en cache par type de
+     * retour : ApiResponse<T> pour un type de retour T, ou le type déclaré
+     * s'il s'agit déjà d'une ApiResponse.
+     *
+     * Le writer est typé : Jackson ne recherche pas le sérialiseur de la racine
+     * à chaque réponse (celui de T reste résolu d'après la classe réelle si T
+     * n'est pas final).
+     */
+    public static ObjectWriter responseWriter(Type returnType, boolean pretty) {
+        Map<Type, ObjectWriter> cache = pretty ? PRETTY_RESPONSE_WRITERS : RESPONSE_WRITERS;
+        ObjectWriter writer = cache.get(returnType);
+        if (writer == null) {
+            writer = mapper.writerFor(responseType(returnType));
+            if (pretty) {
+                writer = writer.withDefaultPrettyPrinter();
+            }
+            ObjectWriter previous = cache.putIfAbsent(returnType, writer);
+            if (previous != null) {
+                writer = previous;
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Writer pour une ApiResponse quelconque (méthode déclarant Object, erreurs)
+     */
+    public static ObjectWriter responseWriter(boolean pretty) {
+        return pretty ? ANY_RESPONSE_WRITER.withDefaultPrettyPrinter() : ANY_RESPONSE_WRITER;
+    }
+
+    /**
+     * Vrai si la valeur renvoyée par la méthode est déjà une ApiResponse
+     * (directement ou comme résultat d'un CompletionStage)
+     */
+    public static boolean declaresApiResponse(Type returnType) {
+        return ApiResponse.class.isAssignableFrom(valueType(returnType).getRawClass());
+    }
+
+    private static JavaType responseType(Type returnType) {
+        JavaType type = valueType(returnType);
+        if (ApiResponse.class.isAssignableFrom(type.getRawClass())) {
+            return type;
+        }
+        return mapper.getTypeFactory().constructParametricType(ApiResponse.class, type);
+    }
+
+    /**
+     * Type de la valeur sérialisée : le type de retour, ou T pour un
+     * CompletionStage<T> (contrôleur asynchrone)
+     */
+    private static JavaType valueType(Type returnType) {
+        TypeFactory types = mapper.getTypeFactory();
+        if (returnType instanceof Class<?> && ((Class<?>) returnType).isPrimitive()) {
+            returnType = MethodType.methodType((Class<?>) returnType).wrap().returnType();
+        }
+        JavaType type = types.constructType(returnType);
+        if (CompletionStage.class.isAssignableFrom(type.getRawClass())) {
+            JavaType[] params = type.findTypeParameters(CompletionStage.class);
+            type = params.length == 1 ? params[0] : types.constructType(Object.class);
+        }
+        return type;
+    }
+
+    /**
+     * Construit à l'avance le writer et les sérialiseurs de la réponse d'une
+     * méthode @Json, pour que la première requête ne paie pas leur
+     * introspection.
+     *
+     * Les propriétés de type non final sont résolues par Jackson d'après la
+     * classe réelle de la valeur : le type déclaré et celui de ses éléments
+     * sont donc aussi préparés séparément.
+     */
+    public static void prepareSerializers(Type returnType) {
+        if (returnType == void.class || returnType == Void.class) {
+            return;
+        }
+        JavaType type = valueType(returnType);
+        if (StreamingJsonWriter.isStreamableType(type.getRawClass())) {
+            // Écrit élément par élément : seul le type des éléments est utile
+            JavaType element = type.containedTypeOrUnknown(0);
+            if (!element.isJavaLangObject()) {
+                mapper.writerFor(element);
+            }
+            return;
+        }
+
+        // writerFor charge le sérialiseur tant que EAGER_SERIALIZER_FETCH est actif (défaut)
+        responseWriter(returnType, false);
+
+        type = responseType(returnType).containedTypeOrUnknown(0);
+        if (!type.isJavaLangObject()) {
+            mapper.writerFor(type);
+            JavaType content = type.getContentType();
+            if (content != null && !content.isJavaLangObject()) {
+                mapper.writerFor(content);
+            }
+        }
+    }
+
+    /**
+     * Reader mis en cache pour un type, générique compris (List<Item>...)
+     */
+    public static ObjectReader readerFor(Type type) {
+        ObjectReader reader = READERS.get(type);
+        if (reader == null) {
+            reader = mapper.readerFor(mapper.getTypeFactory().constructType(type));
+            ObjectReader previous = READERS.putIfAbsent(type, reader);
+            if (previous != null) {
+                reader = previous;
+            }
+        }
+        return reader;
+    }
+
     /**
      * Parse un JSON en objet Java
      */
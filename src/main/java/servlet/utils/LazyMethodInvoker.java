@@ -0,0 +1,126 @@
+package servlet.utils;
+
+import servlet.async.BulkheadLimiter;
+import servlet.binding.ArgumentResolver;
+import servlet.binding.BindingPlan;
+import servlet.cache.CachePolicy;
+import servlet.invoker.ControllerHandler;
+import servlet.processor.RouteIndex;
+import servlet.scope.ControllerProvider;
+import servlet.security.SecurityPolicy;
+
+/**
+ * MethodInvoker construit depuis l'index des routes : la classe du contrôleur
+ * n'est chargée (et la route préparée) qu'à la première requête qui l'utilise.
+ *
+ * La route entière (contrôleur, appel généré, sécurité, @Bulkhead, cache,
+ * compression, plan de binding) est préparée sous le verrou avant la
+ * publication de "resolved" : les accesseurs passent par resolve() et ne
+ * lisent ensuite que des champs déjà fixés.
+ */
+public class LazyMethodInvoker extends MethodInvoker {
+
+    private final RouteIndex.Entry entry;
+    private final ClassLoader loader;
+    private volatile boolean resolved;
+    private boolean resolving; // préparation en cours (même thread, sous le verrou)
+
+    public LazyMethodInvoker(RouteIndex.Entry entry, ClassLoader loader) {
+        super(null, null);
+        this.entry = entry;
+        this.loader = loader;
+        this.parameterNames = entry.getParameterNames();
+    }
+
+    @Override
+    public Class<?> getControllerClass() {
+        resolve();
+        return controllerClass;
+    }
+
+    @Override
+    public java.lang.reflect.Method getMethod() {
+        resolve();
+        return method;
+    }
+
+    @Override
+    public ControllerProvider getProvider() {
+        resolve();
+        return super.getProvider();
+    }
+
+    @Override
+    public ControllerHandler getHandler() {
+        resolve();
+        return super.getHandler();
+    }
+
+    @Override
+    public SecurityPolicy getSecurityPolicy() {
+        resolve();
+        return super.getSecurityPolicy();
+    }
+
+    @Override
+    public BindingPlan getBindingPlan() {
+        resolve();
+        return super.getBindingPlan();
+    }
+
+    @Override
+    public BulkheadLimiter getBulkhead() {
+        resolve();
+        return super.getBulkhead();
+    }
+
+    @Override
+    public CachePolicy getCachePolicy() {
+        resolve();
+        return super.getCachePolicy();
+    }
+
+    @Override
+    public int getCompressionLevel() {
+        resolve();
+        return super.getCompressionLevel();
+    }
+
+    public boolean isResolved() {
+        return resolved;
+    }
+
+    public RouteIndex.Entry getEntry() {
+        return entry;
+    }
+
+    private void resolve() {
+        if (resolved) {
+            return;
+        }
+        synchronized (this) {
+            if (resolved || resolving) {
+                return;
+            }
+            resolving = true;
+            try {
+                java.lang.reflect.Method m = entry.resolve(loader);
+                m.setAccessible(true);
+                this.method = m;
+                this.controllerClass = m.getDeclaringClass();
+                prepare();
+                if (bindingPlan == null) {
+                    bindingPlan = new ArgumentResolver().compile(m,
+                            RouteTrie.paramNames(entry.getUrlPattern()), parameterNames);
+                }
+                resolved = true;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Route de l'index introuvable : " + entry.toLine(), e);
+            } finally {
+                resolving = false;
+            }
+            System.out.println("[LazyMethodInvoker] Contrôleur chargé : " + controllerClass.getSimpleName()
+                    + "." + method.getName());
+        }
+    }
+}
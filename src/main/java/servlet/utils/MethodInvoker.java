@@ -1,8 +1,34 @@
 package servlet.utils;
 
+import java.util.concurrent.CompletionStage;
+
+import servlet.async.BulkheadLimiter;
+import servlet.binding.BindingPlan;
+import servlet.cache.CachePolicy;
+import servlet.invoker.ControllerHandler;
+import servlet.invoker.HandlerFactory;
+import servlet.response.ResponseCompressor;
+import servlet.scope.ControllerProvider;
+import servlet.security.SecurityPolicy;
+import servlet.scope.ControllerProviders;
+
 public class MethodInvoker {
+    // Valeur des règles pas encore lues (null signifie "aucune règle")
+    private static final Object UNRESOLVED = new Object();
+    private static final int UNRESOLVED_LEVEL = Integer.MIN_VALUE;
+
     Class<?> controllerClass;
     java.lang.reflect.Method method;
+    ControllerProvider provider;
+    ControllerHandler handler;
+    BindingPlan bindingPlan;
+    SecurityPolicy securityPolicy;
+    // Un seul champ volatile par règle : jamais de drapeau "résolu" visible
+    // avant la valeur, même lue sans verrou par des requêtes concurrentes
+    volatile Object bulkhead = UNRESOLVED;
+    volatile Object cachePolicy = UNRESOLVED;
+    volatile int compressionLevel = UNRESOLVED_LEVEL;
+    String[] parameterNames; // noms déclarés (index de routes), si connus
 
     public Class<?> getControllerClass() {
         return controllerClass;
@@ -10,6 +36,7 @@ public class MethodInvoker {
 
     public void setControllerClass(Class<?> controllerClass) {
         this.controllerClass = controllerClass;
+        this.provider = null;
     }
 
     public java.lang.reflect.Method getMethod() {
@@ -18,15 +45,146 @@ public class MethodInvoker {
 
     public void setMethod(java.lang.reflect.Method method) {
         this.method = method;
+        this.handler = null;
+        this.bindingPlan = null;
+        this.securityPolicy = null;
+        this.bulkhead = UNRESOLVED;
+        this.cachePolicy = UNRESOLVED;
+        this.compressionLevel = UNRESOLVED_LEVEL;
     }
 
     public MethodInvoker(Class<?> c, java.lang.reflect.Method m) {
+        this(c, m, null);
+    }
+
+    public MethodInvoker(Class<?> c, java.lang.reflect.Method m, ControllerProvider provider) {
         this.controllerClass = c;
         this.method = m;
+        this.provider = provider;
+        if (m != null) {
+            this.method.setAccessible(true);
+        }
+    }
+
+    /**
+     * Noms des paramètres tels que déclarés dans le source, ou null
+     * (dans ce cas, Parameter.getName() est utilisé)
+     */
+    public String[] getParameterNames() {
+        return parameterNames;
+    }
+
+    public void setParameterNames(String[] parameterNames) {
+        this.parameterNames = parameterNames;
+    }
+
+    public ControllerProvider getProvider() {
+        if (provider == null) {
+            provider = ControllerProviders.get(getControllerClass());
+        }
+        return provider;
+    }
+
+    public ControllerHandler getHandler() {
+        if (handler == null) {
+            handler = HandlerFactory.create(getMethod());
+        }
+        return handler;
+    }
+
+    public BindingPlan getBindingPlan() {
+        return bindingPlan;
+    }
+
+    public void setBindingPlan(BindingPlan bindingPlan) {
+        this.bindingPlan = bindingPlan;
+    }
+
+    public SecurityPolicy getSecurityPolicy() {
+        if (securityPolicy == null) {
+            securityPolicy = SecurityPolicy.forMethod(getMethod());
+        }
+        return securityPolicy;
+    }
+
+    /**
+     * Limite @Bulkhead de la route (méthode ou contrôleur), ou null
+     */
+    public BulkheadLimiter getBulkhead() {
+        Object value = bulkhead;
+        if (value == UNRESOLVED) {
+            value = BulkheadLimiter.forMethod(getMethod());
+            bulkhead = value;
+        }
+        return (BulkheadLimiter) value;
+    }
+
+    /**
+     * Règle @Cacheable de la route, ou null
+     */
+    public CachePolicy getCachePolicy() {
+        Object value = cachePolicy;
+        if (value == UNRESOLVED) {
+            value = CachePolicy.forMethod(getMethod());
+            cachePolicy = value;
+        }
+        return (CachePolicy) value;
+    }
+
+    /**
+     * Niveau @Compression de la route (méthode ou contrôleur) :
+     * ResponseCompressor.DISABLED, -1 (niveau configuré) ou 0 à 9
+     */
+    public int getCompressionLevel() {
+        int level = compressionLevel;
+        if (level == UNRESOLVED_LEVEL) {
+            level = ResponseCompressor.levelFor(getMethod());
+            compressionLevel = level;
+        }
+        return level;
+    }
+
+    /**
+     * Prépare la route au démarrage (instance(s) du contrôleur, appel généré,
+     * règle de sécurité, limite @Bulkhead, règles de cache et de compression)
+     * pour que la première requête ne paie pas ce coût
+     */
+    public void prepare() {
+        getProvider();
+        getHandler();
+        getSecurityPolicy();
+        getBulkhead();
+        getCachePolicy();
+        getCompressionLevel();
     }
 
     public Object execute(Object... args) throws Exception {
-        Object object = controllerClass.getDeclaredConstructor().newInstance();
-        return method.invoke(object, args);
+        BulkheadLimiter limiter = getBulkhead();
+        ControllerProvider p = getProvider();
+        ControllerHandler h = getHandler();
+        if (limiter != null) {
+            limiter.acquire();
+        }
+        boolean releaseLimiter = limiter != null;
+        Object object = null;
+        try {
+            object = p.acquire();
+            Object result = h.invoke(object, args);
+            // Résultat asynchrone : la place reste prise jusqu'à sa complétion
+            if (releaseLimiter && result instanceof CompletionStage) {
+                ((CompletionStage<?>) result).whenComplete((value, error) -> limiter.release());
+                releaseLimiter = false;
+            }
+            return result;
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new java.lang.reflect.UndeclaredThrowableException(t);
+        } finally {
+            p.release(object);
+            if (releaseLimiter) {
+                limiter.release();
+            }
+        }
     }
 }
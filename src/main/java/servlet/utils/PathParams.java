@@ -0,0 +1,135 @@
+package servlet.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Vue légère sur les paramètres de chemin d'une requête.
+ *
+ * Les noms sont connus au démarrage (un index par {param} du pattern) et les
+ * valeurs sont conservées sous forme de positions (début, fin) dans l'URL de
+ * la requête. Une valeur n'est extraite (substring) que lorsqu'elle est lue.
+ */
+public class PathParams extends AbstractMap<String, String> {
+
+    public static final PathParams EMPTY = new PathParams(new String[0], "", new int[0]);
+
+    private final String[] names;
+    private final String source;
+    private final int[] offsets; // [début0, fin0, début1, fin1, ...]
+
+    public PathParams(String[] names, String source, int[] offsets) {
+        this.names = names;
+        this.source = source;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Construit une vue à partir d'une Map classique (compatibilité setPathParams)
+     */
+    public static PathParams copyOf(Map<String, String> params) {
+        if (params == null || params.isEmpty()) {
+            return EMPTY;
+        }
+        if (params instanceof PathParams) {
+            return (PathParams) params;
+        }
+        String[] names = new String[params.size()];
+        int[] offsets = new int[params.size() * 2];
+        StringBuilder source = new StringBuilder();
+        int i = 0;
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            names[i] = entry.getKey();
+            offsets[2 * i] = source.length();
+            if (entry.getValue() != null) {
+                source.append(entry.getValue());
+            }
+            offsets[2 * i + 1] = source.length();
+            i++;
+        }
+        return new PathParams(names, source.toString(), offsets);
+    }
+
+    /**
+     * Index du paramètre dans le pattern, ou -1 s'il n'existe pas
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Valeur du paramètre à l'index donné (null si l'index est hors limites)
+     */
+    public String get(int index) {
+        if (index < 0 || index >= names.length) {
+            return null;
+        }
+        return source.substring(offsets[2 * index], offsets[2 * index + 1]);
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Noms des paramètres dans l'ordre du pattern (tableau partagé, ne pas modifier)
+     */
+    public String[] getNames() {
+        return names;
+    }
+
+    @Override
+    public String get(Object name) {
+        return name instanceof String ? get(indexOf((String) name)) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return name instanceof String && indexOf((String) name) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < names.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, String> next() {
+                        if (index >= names.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = index++;
+                        return new SimpleImmutableEntry<>(names[i], get(i));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return names.length;
+            }
+        };
+    }
+}
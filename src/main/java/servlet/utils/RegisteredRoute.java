@@ -1,12 +1,24 @@
 package servlet.utils;
 
+import servlet.metrics.RouteMetrics;
+
 public class RegisteredRoute {
     private String httpMethod; // GET, POST
     private MethodInvoker invoker;
+    private String urlPattern;
+    private String[] paramNames; // noms des {param} dans l'ordre du pattern
+    private final RouteMetrics metrics;
 
     public RegisteredRoute(String httpMethod, MethodInvoker invoker) {
+        this(null, httpMethod, invoker);
+    }
+
+    public RegisteredRoute(String urlPattern, String httpMethod, MethodInvoker invoker) {
+        this.urlPattern = urlPattern;
         this.httpMethod = httpMethod;
         this.invoker = invoker;
+        this.paramNames = urlPattern != null ? RouteTrie.paramNames(urlPattern) : new String[0];
+        this.metrics = new RouteMetrics(httpMethod, urlPattern);
     }
 
     public String getHttpMethod() {
@@ -16,4 +28,16 @@ public class RegisteredRoute {
     public MethodInvoker getInvoker() {
         return invoker;
     }
-}
\ No newline at end of file
+
+    public String getUrlPattern() {
+        return urlPattern;
+    }
+
+    public String[] getParamNames() {
+        return paramNames;
+    }
+
+    public RouteMetrics getMetrics() {
+        return metrics;
+    }
+}
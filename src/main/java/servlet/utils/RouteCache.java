@@ -0,0 +1,176 @@
+package servlet.utils;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache borné des URLs concrètes déjà résolues (méthode HTTP + chemin).
+ *
+ * La lecture est sans verrou (ConcurrentHashMap + bit de référence). Quand le
+ * cache est plein, l'insertion évince une entrée selon l'algorithme CLOCK :
+ * l'aiguille parcourt les emplacements, efface le bit des entrées récemment
+ * lues et remplace la première entrée non référencée.
+ *
+ * Les RouteMatch mis en cache sont partagés entre les requêtes et ne doivent
+ * donc pas être modifiés.
+ */
+public class RouteCache {
+
+    private final int capacity;
+    private final ConcurrentHashMap<Key, Entry> index;
+    private final Entry[] slots;
+    private int hand = 0;
+    private int size = 0;
+
+    // Incrémenté à chaque invalidation : une résolution commencée avant un
+    // changement de la table des routes ne peut pas être insérée après
+    private volatile long generation = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RouteCache(int capacity) {
+        this.capacity = capacity;
+        this.index = new ConcurrentHashMap<>(Math.max(16, capacity * 2));
+        this.slots = new Entry[Math.max(0, capacity)];
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Retourne la route mise en cache pour cette URL, ou null
+     */
+    public RouteMatch get(String httpMethod, String urlSpec) {
+        Entry entry = index.get(new Key(httpMethod, urlSpec));
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        entry.referenced = true;
+        hits.increment();
+        return entry.match;
+    }
+
+    /**
+     * Ajoute une route résolue. Ignoré si le cache a été invalidé depuis
+     * le début de la résolution (generation différente).
+     */
+    public synchronized void put(String httpMethod, String urlSpec, RouteMatch match, long expectedGeneration) {
+        if (capacity <= 0 || expectedGeneration != generation) {
+            return;
+        }
+        Key key = new Key(httpMethod, urlSpec);
+        if (index.containsKey(key)) {
+            return;
+        }
+
+        int slot;
+        if (size < capacity) {
+            slot = size++;
+        } else {
+            slot = evict();
+        }
+        Entry entry = new Entry(key, match);
+        slots[slot] = entry;
+        index.put(key, entry);
+    }
+
+    private int evict() {
+        while (true) {
+            Entry candidate = slots[hand];
+            int slot = hand;
+            hand = (hand + 1) % capacity;
+            if (candidate.referenced) {
+                candidate.referenced = false;
+                continue;
+            }
+            index.remove(candidate.key);
+            evictions.increment();
+            return slot;
+        }
+    }
+
+    /**
+     * Vide le cache (appelé quand la table des routes change)
+     */
+    public synchronized void invalidate() {
+        generation++;
+        index.clear();
+        for (int i = 0; i < size; i++) {
+            slots[i] = null;
+        }
+        size = 0;
+        hand = 0;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public String toString() {
+        return "RouteCache{size=" + size() + "/" + capacity + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "}";
+    }
+
+    // ===================== ENTRÉES =====================
+
+    private static final class Key {
+        final String httpMethod;
+        final String urlSpec;
+        final int hash;
+
+        Key(String httpMethod, String urlSpec) {
+            // Même normalisation que RouteTrie.find : "get" et "GET" partagent l'entrée
+            this.httpMethod = httpMethod.toUpperCase(Locale.ROOT);
+            this.urlSpec = urlSpec;
+            this.hash = 31 * this.httpMethod.hashCode() + urlSpec.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && urlSpec.equals(other.urlSpec)
+                    && httpMethod.equals(other.httpMethod);
+        }
+    }
+
+    private static final class Entry {
+        final Key key;
+        final RouteMatch match;
+        volatile boolean referenced;
+
+        Entry(Key key, RouteMatch match) {
+            this.key = key;
+            this.match = match;
+        }
+    }
+}
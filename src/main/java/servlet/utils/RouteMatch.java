@@ -4,14 +4,15 @@ import java.util.Map;
 
 public class RouteMatch {
     private MethodInvoker method;
-    private Map<String, String> pathParams;
+    private PathParams pathParams = PathParams.EMPTY;
+    private RegisteredRoute route;
 
     public void setMethod(MethodInvoker method) {
         this.method = method;
     }
 
     public void setPathParams(Map<String, String> pathParams) {
-        this.pathParams = pathParams;
+        this.pathParams = PathParams.copyOf(pathParams);
     }
 
     public RouteMatch() {
@@ -19,15 +20,26 @@ public class RouteMatch {
 
     public RouteMatch(MethodInvoker method, Map<String, String> params) {
         this.method = method;
-        this.pathParams = params;
+        this.pathParams = PathParams.copyOf(params);
     }
 
     public MethodInvoker getMethodInvoker() {
         return method;
     }
 
-    public Map<String, String> getPathParams() {
+    public PathParams getPathParams() {
         return pathParams;
     }
 
+    /**
+     * Route enregistrée correspondante (null si le match a été construit à la main)
+     */
+    public RegisteredRoute getRoute() {
+        return route;
+    }
+
+    public void setRoute(RegisteredRoute route) {
+        this.route = route;
+    }
+
 }
@@ -0,0 +1,284 @@
+package servlet.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Arbre de routes par segments, construit une seule fois au démarrage.
+ *
+ * Chaque noeud correspond à un segment d'URL. Lors de la recherche, on essaie
+ * dans l'ordre : le segment statique exact, puis les segments mixtes
+ * (ex: "file-{id}.pdf", regex précompilée), puis le segment paramètre
+ * "{param}". La recherche est donc proportionnelle à la longueur du chemin et
+ * non plus au nombre de routes enregistrées.
+ */
+public class RouteTrie {
+
+    private static final Pattern PARAM_SEGMENT = Pattern.compile("\\{([^/{}]+)}");
+
+    private static final int[] NO_CAPTURES = new int[0];
+
+    private final Node root = new Node();
+    private int maxParams = 0;
+
+    /**
+     * Ajoute une route dans l'arbre
+     */
+    public void insert(RegisteredRoute route) {
+        maxParams = Math.max(maxParams, route.getParamNames().length);
+        Node node = root;
+        for (String segment : route.getUrlPattern().split("/", -1)) {
+            node = node.child(segment);
+        }
+        String httpMethod = route.getHttpMethod().toUpperCase(Locale.ROOT);
+        RegisteredRoute existing = node.routes.putIfAbsent(httpMethod, route);
+        if (existing != null) {
+            System.err.println("[RouteTrie] Route en double ignorée : [" + httpMethod + "] "
+                    + route.getUrlPattern() + " (déjà mappée sur " + existing.getUrlPattern() + ")");
+        }
+    }
+
+    /**
+     * Recherche la route correspondant à l'URL et à la méthode HTTP.
+     * Retourne null si aucune route ne correspond.
+     */
+    public RouteMatch find(String urlSpec, String httpMethod) {
+        String method = httpMethod.toUpperCase(Locale.ROOT);
+        int[] captures = maxParams == 0 ? NO_CAPTURES : new int[maxParams * 2];
+        RegisteredRoute route = find(root, urlSpec, 0, method, captures, 0);
+        if (route == null) {
+            return null;
+        }
+
+        String[] names = route.getParamNames();
+        PathParams params = names.length == 0 ? PathParams.EMPTY : new PathParams(names, urlSpec, captures);
+        RouteMatch match = new RouteMatch(route.getInvoker(), params);
+        match.setRoute(route);
+        return match;
+    }
+
+    /**
+     * Retourne les méthodes HTTP acceptées pour cette URL (vide si l'URL
+     * n'existe pas du tout). Utilisé pour distinguer 404 et 405.
+     */
+    public Set<String> allowedMethods(String urlSpec) {
+        Set<String> methods = new LinkedHashSet<>();
+        collect(root, urlSpec, 0, methods);
+        return methods;
+    }
+
+    private RegisteredRoute find(Node node, String path, int start, String method,
+            int[] captures, int count) {
+        int end = path.indexOf('/', start);
+        boolean last = end < 0;
+        if (last) {
+            end = path.length();
+        }
+
+        // 1) Segment statique (prioritaire)
+        Node child = node.staticChild(path, start, end);
+        if (child != null) {
+            RegisteredRoute found = last
+                    ? child.routes.get(method)
+                    : find(child, path, end + 1, method, captures, count);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        // 2) Segments mixtes (texte + paramètres)
+        for (PatternChild pc : node.patterns) {
+            Matcher matcher = pc.pattern.matcher(path).region(start, end);
+            if (!matcher.matches()) {
+                continue;
+            }
+            int groups = matcher.groupCount();
+            for (int g = 1; g <= groups; g++) {
+                captures[2 * (count + g - 1)] = matcher.start(g);
+                captures[2 * (count + g - 1) + 1] = matcher.end(g);
+            }
+            RegisteredRoute found = last
+                    ? pc.node.routes.get(method)
+                    : find(pc.node, path, end + 1, method, captures, count + groups);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        // 3) Segment paramètre {param}
+        if (node.param != null && end > start) {
+            captures[2 * count] = start;
+            captures[2 * count + 1] = end;
+            return last
+                    ? node.param.routes.get(method)
+                    : find(node.param, path, end + 1, method, captures, count + 1);
+        }
+
+        return null;
+    }
+
+    private void collect(Node node, String path, int start, Set<String> methods) {
+        int end = path.indexOf('/', start);
+        boolean last = end < 0;
+        if (last) {
+            end = path.length();
+        }
+
+        List<Node> candidates = new ArrayList<>();
+        Node child = node.staticChild(path, start, end);
+        if (child != null) {
+            candidates.add(child);
+        }
+        for (PatternChild pc : node.patterns) {
+            if (pc.pattern.matcher(path).region(start, end).matches()) {
+                candidates.add(pc.node);
+            }
+        }
+        if (node.param != null && end > start) {
+            candidates.add(node.param);
+        }
+
+        for (Node candidate : candidates) {
+            if (last) {
+                methods.addAll(candidate.routes.keySet());
+            } else {
+                collect(candidate, path, end + 1, methods);
+            }
+        }
+    }
+
+    /**
+     * Extrait les noms de paramètres d'un pattern d'URL, dans l'ordre
+     * d'apparition (ex: "/users/{id}/orders/{oid}" → [id, oid])
+     */
+    public static String[] paramNames(String urlPattern) {
+        List<String> names = new ArrayList<>();
+        Matcher matcher = PARAM_SEGMENT.matcher(urlPattern);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        return names.toArray(new String[0]);
+    }
+
+    // ===================== NOEUDS =====================
+
+    private static class Node {
+        final Map<String, Node> statics = new HashMap<>();
+        final List<PatternChild> patterns = new ArrayList<>();
+        Node param;
+        final Map<String, RegisteredRoute> routes = new HashMap<>();
+
+        // Table à adressage ouvert reconstruite à chaque ajout d'un segment
+        // statique : permet de chercher un segment directement dans l'URL
+        // (regionMatches) sans créer de substring
+        String[] staticKeys = new String[0];
+        Node[] staticNodes = new Node[0];
+
+        Node staticChild(String path, int start, int end) {
+            if (staticKeys.length == 0) {
+                return null;
+            }
+            int len = end - start;
+            int mask = staticKeys.length - 1;
+            for (int i = hash(path, start, end) & mask;; i = (i + 1) & mask) {
+                String key = staticKeys[i];
+                if (key == null) {
+                    return null;
+                }
+                if (key.length() == len && path.regionMatches(start, key, 0, len)) {
+                    return staticNodes[i];
+                }
+            }
+        }
+
+        private void rebuildStatics() {
+            int capacity = Integer.highestOneBit(Math.max(2, statics.size() * 2 - 1)) << 1;
+            String[] keys = new String[capacity];
+            Node[] nodes = new Node[capacity];
+            for (Map.Entry<String, Node> entry : statics.entrySet()) {
+                String key = entry.getKey();
+                int i = hash(key, 0, key.length()) & (capacity - 1);
+                while (keys[i] != null) {
+                    i = (i + 1) & (capacity - 1);
+                }
+                keys[i] = key;
+                nodes[i] = entry.getValue();
+            }
+            staticKeys = keys;
+            staticNodes = nodes;
+        }
+
+        Node child(String segment) {
+            if (PARAM_SEGMENT.matcher(segment).matches()) {
+                if (param == null) {
+                    param = new Node();
+                }
+                return param;
+            }
+            if (segment.indexOf('{') >= 0) {
+                String regex = toRegex(segment);
+                for (PatternChild pc : patterns) {
+                    if (pc.regex.equals(regex)) {
+                        return pc.node;
+                    }
+                }
+                PatternChild pc = new PatternChild(regex);
+                patterns.add(pc);
+                return pc.node;
+            }
+            Node child = statics.get(segment);
+            if (child == null) {
+                child = new Node();
+                statics.put(segment, child);
+                rebuildStatics();
+            }
+            return child;
+        }
+    }
+
+    private static int hash(String s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static class PatternChild {
+        final String regex;
+        final Pattern pattern;
+        final Node node = new Node();
+
+        PatternChild(String regex) {
+            this.regex = regex;
+            this.pattern = Pattern.compile(regex);
+        }
+    }
+
+    /**
+     * Transforme un segment mixte ("file-{id}.pdf") en regex ("\Qfile-\E([^/]+)\Q.pdf\E")
+     */
+    private static String toRegex(String segment) {
+        StringBuilder regex = new StringBuilder();
+        Matcher matcher = PARAM_SEGMENT.matcher(segment);
+        int last = 0;
+        while (matcher.find()) {
+            if (matcher.start() > last) {
+                regex.append(Pattern.quote(segment.substring(last, matcher.start())));
+            }
+            regex.append("([^/]+)");
+            last = matcher.end();
+        }
+        if (last < segment.length()) {
+            regex.append(Pattern.quote(segment.substring(last)));
+        }
+        return regex.toString();
+    }
+}
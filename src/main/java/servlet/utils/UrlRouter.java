@@ -3,48 +3,120 @@ package servlet.utils;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+
+import servlet.config.FrameworkConfig;
 
 public class UrlRouter extends HashMap<String, List<RegisteredRoute>> {
 
+    private static final int DEFAULT_CACHE_SIZE = 1024;
+
+    // Arbre compilé à partir de la table des routes (null = à reconstruire)
+    private volatile RouteTrie trie;
+
+    // Cache des URLs concrètes déjà résolues, placé devant l'arbre
+    private final RouteCache cache;
+
+    public UrlRouter() {
+        this(FrameworkConfig.getInstance().getInt("framework.routes.cache.size", DEFAULT_CACHE_SIZE));
+    }
+
+    public UrlRouter(int cacheSize) {
+        this.cache = new RouteCache(cacheSize);
+    }
+
     public void addRoute(String urlPattern, String httpMethod, MethodInvoker invoker) {
 
         this.computeIfAbsent(urlPattern, k -> new ArrayList<>())
-                .add(new RegisteredRoute(httpMethod, invoker));
+                .add(new RegisteredRoute(urlPattern, httpMethod, invoker));
+        invalidate();
     }
 
-    public RouteMatch findByUrl(String urlSpec, String httpMethod) {
+    @Override
+    public List<RegisteredRoute> put(String urlPattern, List<RegisteredRoute> routes) {
+        List<RegisteredRoute> previous = super.put(urlPattern, routes);
+        invalidate();
+        return previous;
+    }
 
-        for (Map.Entry<String, List<RegisteredRoute>> entry : this.entrySet()) {
+    @Override
+    public List<RegisteredRoute> remove(Object urlPattern) {
+        List<RegisteredRoute> previous = super.remove(urlPattern);
+        invalidate();
+        return previous;
+    }
 
-            String urlPattern = entry.getKey();
+    @Override
+    public void clear() {
+        super.clear();
+        invalidate();
+    }
+
+    // Appelé après chaque modification de la table : l'arbre sera reconstruit
+    // et le cache vidé
+    private void invalidate() {
+        trie = null;
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
 
-            // 1) Check URL matching
-            if (!UrlMatcher.match(urlPattern, urlSpec)) {
-                continue;
+    /**
+     * Construit l'arbre de recherche à partir des routes enregistrées.
+     * Appelé une fois par RouteInitializer après l'enregistrement des routes.
+     */
+    public synchronized RouteTrie compile() {
+        RouteTrie compiled = trie;
+        if (compiled == null) {
+            compiled = new RouteTrie();
+            for (List<RegisteredRoute> registered : this.values()) {
+                for (RegisteredRoute route : registered) {
+                    compiled.insert(route);
+                }
             }
+            trie = compiled;
+        }
+        return compiled;
+    }
 
-            List<RegisteredRoute> registered = entry.getValue();
+    public RouteMatch findByUrl(String urlSpec, String httpMethod) {
+        if (!cache.isEnabled()) {
+            return lookup(urlSpec, httpMethod);
+        }
 
-            for (RegisteredRoute route : registered) {
+        RouteMatch cached = cache.get(httpMethod, urlSpec);
+        if (cached != null) {
+            return cached;
+        }
 
-                // 2) Check HTTP method
-                if (!route.getHttpMethod().equalsIgnoreCase(httpMethod)) {
-                    System.out.println(route.getHttpMethod());
-                    continue;
-                }
+        long generation = cache.getGeneration();
+        RouteMatch match = lookup(urlSpec, httpMethod);
+        if (match != null) {
+            cache.put(httpMethod, urlSpec, match, generation);
+        }
+        return match;
+    }
 
-                // 3) Cette route matche parfaitement
-                RouteMatch match = new RouteMatch();
-                match.setMethod(route.getInvoker());
+    private RouteMatch lookup(String urlSpec, String httpMethod) {
+        RouteTrie compiled = trie;
+        if (compiled == null) {
+            compiled = compile();
+        }
+        return compiled.find(urlSpec, httpMethod);
+    }
 
-                Map<String, String> params = UrlMatcher.extractParams(urlPattern, urlSpec);
-                match.setPathParams(params);
+    public RouteCache getCache() {
+        return cache;
+    }
 
-                return match;
-            }
+    /**
+     * Méthodes HTTP disponibles pour une URL : vide → 404, sinon → 405
+     */
+    public Set<String> getAllowedMethods(String urlSpec) {
+        RouteTrie compiled = trie;
+        if (compiled == null) {
+            compiled = compile();
         }
-
-        return null;
+        return compiled.allowedMethods(urlSpec);
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package servlet.view;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Requête transmise à la vue : les attributs du ModelView sont lus
+ * directement dans sa Map, sans être recopiés un à un dans la requête.
+ *
+ * Un attribut posé ou retiré par la vue (ou un filtre) masque celui du
+ * modèle ; la Map du ModelView n'est jamais modifiée.
+ */
+public class ModelViewRequest extends HttpServletRequestWrapper {
+
+    private final Map<String, Object> model;
+    private Set<String> overridden;
+
+    public ModelViewRequest(HttpServletRequest request, Map<String, Object> model) {
+        super(request);
+        this.model = model;
+    }
+
+    private boolean fromModel(String name) {
+        return model.containsKey(name) && (overridden == null || !overridden.contains(name));
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        if (fromModel(name)) {
+            return model.get(name);
+        }
+        return super.getAttribute(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        override(name);
+        super.setAttribute(name, o);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        override(name);
+        super.removeAttribute(name);
+    }
+
+    private void override(String name) {
+        if (model.containsKey(name)) {
+            if (overridden == null) {
+                overridden = new HashSet<>();
+            }
+            overridden.add(name);
+        }
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : model.keySet()) {
+            if (fromModel(name)) {
+                names.add(name);
+            }
+        }
+        names.addAll(Collections.list(super.getAttributeNames()));
+        return Collections.enumeration(names);
+    }
+}
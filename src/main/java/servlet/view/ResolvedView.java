@@ -0,0 +1,55 @@
+package servlet.view;
+
+import jakarta.servlet.RequestDispatcher;
+
+/**
+ * Résultat mis en cache de la résolution d'une vue : existence, chemin réel
+ * (messages d'erreur) et RequestDispatcher, réutilisé d'une requête à
+ * l'autre (les dispatchers de Tomcat et Jetty sont sans état par requête).
+ */
+public final class ResolvedView {
+
+    private final String path;
+    private final String realPath;
+    private final boolean exists;
+    private final RequestDispatcher dispatcher;
+    final long resolvedAt;
+
+    ResolvedView(String path, String realPath, boolean exists, RequestDispatcher dispatcher, long resolvedAt) {
+        this.path = path;
+        this.realPath = realPath;
+        this.exists = exists;
+        this.dispatcher = dispatcher;
+        this.resolvedAt = resolvedAt;
+    }
+
+    /**
+     * Chemin de la vue dans l'application ("/pages/liste.jsp")
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Chemin sur le disque, ou null si l'application n'est pas dépliée
+     */
+    public String getRealPath() {
+        return realPath;
+    }
+
+    public boolean exists() {
+        return exists;
+    }
+
+    /**
+     * Dispatcher de la vue, null si elle n'existe pas
+     */
+    public RequestDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    @Override
+    public String toString() {
+        return "ResolvedView{" + path + (exists ? "" : ", introuvable") + "}";
+    }
+}
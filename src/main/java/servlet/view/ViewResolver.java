@@ -0,0 +1,220 @@
+package servlet.view;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.servlet.ServletContext;
+import servlet.config.FrameworkConfig;
+
+/**
+ * Résolution des vues (ModelView) mise en cache : getRealPath, tests
+ * d'existence et getRequestDispatcher ne sont faits qu'une fois par vue, au
+ * lieu de plusieurs appels système à chaque requête (coûteux sur NFS).
+ *
+ * Invalidation selon framework.views.refresh :
+ * <ul>
+ * <li>watch (défaut) : un WatchService surveille les répertoires de
+ * l'application ; toute création, modification ou suppression vide le
+ * cache ;</li>
+ * <li>ttl : une résolution est refaite après framework.views.ttl secondes
+ * (production, systèmes de fichiers où la surveillance est indisponible) ;</li>
+ * <li>none : résolution définitive jusqu'à l'arrêt.</li>
+ * </ul>
+ * Sans répertoire surveillable (application non dépliée, NFS refusant la
+ * surveillance), le mode watch se replie sur ttl.
+ */
+public class ViewResolver {
+
+    private final ServletContext context;
+    private final Map<String, ResolvedView> views = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private long ttlNanos;
+    private Path root;
+    private volatile WatchService watcher;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ViewResolver(ServletContext context) {
+        this.context = context;
+        FrameworkConfig config = FrameworkConfig.getInstance();
+        this.maxEntries = config.getInt("framework.views.cache.max", 1024);
+        String refresh = config.getString("framework.views.refresh", "watch").trim().toLowerCase(Locale.ROOT);
+        long ttlSeconds = config.getLong("framework.views.ttl", 60);
+
+        switch (refresh) {
+            case "none":
+                ttlNanos = 0;
+                break;
+            case "ttl":
+                ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+                break;
+            default:
+                if (!startWatching()) {
+                    ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+                    System.err.println("[ViewResolver] Surveillance des vues indisponible : expiration après "
+                            + ttlSeconds + " s");
+                }
+        }
+    }
+
+    /**
+     * Vue résolue (existante ou non) pour un chemin de l'application
+     * ("/" + ModelView.getView())
+     */
+    public ResolvedView resolve(String viewPath) {
+        ResolvedView view = views.get(viewPath);
+        long now = System.nanoTime();
+        if (view != null && (ttlNanos == 0 || now - view.resolvedAt < ttlNanos)) {
+            hits.increment();
+            return view;
+        }
+        misses.increment();
+        view = load(viewPath, now);
+        // Nom de vue construit à partir de la requête : le cache reste borné
+        if (views.size() < maxEntries || views.containsKey(viewPath)) {
+            views.put(viewPath, view);
+        }
+        return view;
+    }
+
+    private ResolvedView load(String viewPath, long now) {
+        String realPath = context.getRealPath(viewPath);
+        boolean exists;
+        if (realPath != null) {
+            exists = Files.isRegularFile(Paths.get(realPath));
+        } else {
+            // Application non dépliée (war) : ressource lue dans l'archive
+            try {
+                exists = !viewPath.endsWith("/") && context.getResource(viewPath) != null;
+            } catch (MalformedURLException e) {
+                exists = false;
+            }
+        }
+        return new ResolvedView(viewPath, realPath, exists,
+                exists ? context.getRequestDispatcher(viewPath) : null, now);
+    }
+
+    /**
+     * Vide le cache : les vues seront résolues à nouveau
+     */
+    public void invalidate() {
+        invalidations.increment();
+        views.clear();
+    }
+
+    /**
+     * Surveille les répertoires de l'application (hors bibliothèques et
+     * classes) dans un thread daemon
+     */
+    private boolean startWatching() {
+        String realRoot = context.getRealPath("/");
+        if (realRoot == null) {
+            return false;
+        }
+        WatchService service;
+        try {
+            root = Paths.get(realRoot);
+            service = FileSystems.getDefault().newWatchService();
+            register(service, root);
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("[ViewResolver] " + e);
+            return false;
+        }
+        watcher = service;
+        Thread thread = new Thread(() -> watch(service), "framework-view-watch");
+        thread.setDaemon(true);
+        thread.start();
+        System.out.println("[ViewResolver] Surveillance des vues : " + realRoot);
+        return true;
+    }
+
+    private void register(WatchService service, Path start) throws IOException {
+        Path lib = root.resolve("WEB-INF").resolve("lib");
+        Path classes = root.resolve("WEB-INF").resolve("classes");
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (dir.equals(lib) || dir.equals(classes)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path dir = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // Nouveau répertoire : surveillé à son tour
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                        Path created = dir.resolve((Path) event.context());
+                        if (Files.isDirectory(created)) {
+                            try {
+                                register(service, created);
+                            } catch (IOException e) {
+                                System.err.println("[ViewResolver] " + created + " non surveillé : " + e);
+                            }
+                        }
+                    }
+                }
+                key.reset();
+                invalidate();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // arrêt
+        }
+    }
+
+    public void close() {
+        WatchService service = watcher;
+        watcher = null;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                System.err.println("[ViewResolver] " + e);
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ViewResolver{size=" + views.size() + ", hits=" + hits.sum() + ", misses=" + misses.sum()
+                + ", invalidations=" + invalidations.sum() + "}";
+    }
+}
@@ -0,0 +1,228 @@
+package servlet.warmup;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Requête et réponse fictives utilisées par le warm-up pour faire passer des
+ * appels GET dans FrontServlet sans passer par le conteneur.
+ *
+ * Seules les méthodes utilisées par le framework sont simulées ; les autres
+ * renvoient null / 0 / false. La réponse est écrite dans le vide.
+ */
+public class SyntheticExchange {
+
+    public static final String WARMUP_ATTRIBUTE = "__warmup";
+
+    private SyntheticExchange() {
+    }
+
+    /**
+     * Requête GET sur une URL relative au contexte, avec query string éventuelle
+     */
+    public static HttpServletRequest request(ServletContext context, String url) {
+        String contextPath = context.getContextPath();
+        int q = url.indexOf('?');
+        String path = q >= 0 ? url.substring(0, q) : url;
+        String query = q >= 0 ? url.substring(q + 1) : null;
+        Map<String, String[]> params = parseQuery(query);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(WARMUP_ATTRIBUTE, Boolean.TRUE);
+
+        return (HttpServletRequest) Proxy.newProxyInstance(SyntheticExchange.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getMethod":
+                            return "GET";
+                        case "getRequestURI":
+                            return contextPath + path;
+                        case "getRequestURL":
+                            return new StringBuffer("http://localhost").append(contextPath).append(path);
+                        case "getContextPath":
+                            return contextPath;
+                        case "getServletPath":
+                            return "";
+                        case "getPathInfo":
+                            return path;
+                        case "getQueryString":
+                            return query;
+                        case "getParameterMap":
+                            return params;
+                        case "getParameter": {
+                            String[] values = params.get((String) args[0]);
+                            return values != null ? values[0] : null;
+                        }
+                        case "getParameterValues":
+                            return params.get((String) args[0]);
+                        case "getParameterNames":
+                            return Collections.enumeration(params.keySet());
+                        case "getAttribute":
+                            return attributes.get((String) args[0]);
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        case "removeAttribute":
+                            attributes.remove((String) args[0]);
+                            return null;
+                        case "getAttributeNames":
+                            return Collections.enumeration(attributes.keySet());
+                        case "getHeaders":
+                        case "getHeaderNames":
+                            return Collections.emptyEnumeration();
+                        case "getDateHeader":
+                        case "getContentLengthLong":
+                            return -1L;
+                        case "getIntHeader":
+                        case "getContentLength":
+                            return -1;
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "getProtocol":
+                            return "HTTP/1.1";
+                        case "getScheme":
+                            return "http";
+                        case "getServerName":
+                        case "getRemoteHost":
+                            return "localhost";
+                        case "getRemoteAddr":
+                            return "127.0.0.1";
+                        case "getLocale":
+                            return Locale.getDefault();
+                        case "getDispatcherType":
+                            return DispatcherType.REQUEST;
+                        case "getServletContext":
+                            return context;
+                        case "toString":
+                            return "SyntheticRequest[GET " + url + "]";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return defaultValue(m.getReturnType());
+                    }
+                });
+    }
+
+    /**
+     * Réponse qui ignore le contenu écrit et mémorise seulement le statut
+     */
+    public static HttpServletResponse response() {
+        int[] status = { 200 };
+        PrintWriter writer = new PrintWriter(Writer.nullWriter());
+        ServletOutputStream output = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+
+        return (HttpServletResponse) Proxy.newProxyInstance(SyntheticExchange.class.getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getWriter":
+                            return writer;
+                        case "getOutputStream":
+                            return output;
+                        case "setStatus":
+                        case "sendError":
+                            status[0] = (Integer) args[0];
+                            return null;
+                        case "getStatus":
+                            return status[0];
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "getLocale":
+                            return Locale.getDefault();
+                        case "toString":
+                            return "SyntheticResponse[" + status[0] + "]";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return defaultValue(m.getReturnType());
+                    }
+                });
+    }
+
+    private static Map<String, String[]> parseQuery(String query) {
+        Map<String, String[]> params = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            String[] previous = params.get(name);
+            if (previous == null) {
+                params.put(name, new String[] { value });
+            } else {
+                String[] values = Arrays.copyOf(previous, previous.length + 1);
+                values[previous.length] = value;
+                params.put(name, values);
+            }
+        }
+        return params;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == char.class) {
+            return (char) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,190 @@
+package servlet.warmup;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import servlet.ModelView;
+import servlet.annotations.Json;
+import servlet.binding.ArgumentResolver;
+import servlet.config.FrameworkConfig;
+import servlet.utils.JsonUtil;
+import servlet.utils.MethodInvoker;
+import servlet.utils.RegisteredRoute;
+import servlet.utils.UrlRouter;
+
+/**
+ * Phase de warm-up exécutée au démarrage, avant d'annoncer l'application prête
+ * (framework.warmup=true) :
+ *
+ * 1. chaque route est préparée (contrôleur chargé même en mode lazy, appel
+ * généré, règle de sécurité, plan de binding) ;
+ * 2. les sérialiseurs Jackson des méthodes @Json sont construits ;
+ * 3. optionnellement (framework.warmup.iterations > 0), des requêtes GET
+ * fictives sont envoyées à FrontServlet dans un thread en arrière-plan pour
+ * que le JIT compile les chemins chauds (routage, binding, sérialisation).
+ *
+ * L'état est publié dans le ServletContext (attribut "warmup") et exposé par
+ * FrontServlet sur framework.warmup.readiness.path (/_ready par défaut,
+ * vide pour le désactiver). Sans warm-up, ce chemin n'est pas intercepté.
+ */
+public class Warmup {
+
+    public static final String CONTEXT_ATTRIBUTE = "warmup";
+
+    private final UrlRouter routes;
+    private final int iterations;
+    private final long timeoutMillis;
+    private final String configuredUrls;
+
+    private volatile boolean ready;
+    private volatile boolean started;
+
+    public Warmup(UrlRouter routes) {
+        FrameworkConfig config = FrameworkConfig.getInstance();
+        this.routes = routes;
+        this.iterations = config.getInt("framework.warmup.iterations", 0);
+        this.timeoutMillis = config.getLong("framework.warmup.timeout", 60000);
+        this.configuredUrls = config.getString("framework.warmup.urls", "");
+    }
+
+    public static boolean isEnabled() {
+        return FrameworkConfig.getInstance().getBoolean("framework.warmup", false);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Étapes 1 et 2, exécutées dans le listener. Sans requêtes fictives,
+     * l'application est prête dès la fin de cette étape.
+     */
+    public void prepareRoutes(ArgumentResolver argumentResolver) {
+        long start = System.nanoTime();
+        int prepared = 0;
+        int serializers = 0;
+
+        for (List<RegisteredRoute> registered : routes.values()) {
+            for (RegisteredRoute route : registered) {
+                MethodInvoker invoker = route.getInvoker();
+                try {
+                    invoker.prepare();
+                    if (invoker.getBindingPlan() == null) {
+                        invoker.setBindingPlan(argumentResolver.compile(invoker.getMethod(),
+                                route.getParamNames(), invoker.getParameterNames()));
+                    }
+                    prepared++;
+
+                    Method method = invoker.getMethod();
+                    if (method.isAnnotationPresent(Json.class)) {
+                        JsonUtil.prepareSerializers(method.getGenericReturnType());
+                        serializers++;
+                    }
+                } catch (Exception e) {
+                    System.err.println("[Warmup] Route non préparée [" + route.getHttpMethod() + "] "
+                            + route.getUrlPattern() + " : " + e);
+                }
+            }
+        }
+
+        System.out.println("[Warmup] " + prepared + " routes préparées, " + serializers
+                + " sérialiseurs JSON construits (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+
+        if (iterations <= 0) {
+            ready = true;
+        }
+    }
+
+    /**
+     * Étape 3 : appelé par FrontServlet.init. Les requêtes fictives passent par
+     * servlet.service() dans un thread daemon ; l'application est annoncée
+     * prête à la fin (ou à l'expiration de framework.warmup.timeout).
+     */
+    public synchronized void start(Servlet servlet, ServletContext context) {
+        if (ready || started) {
+            return;
+        }
+        started = true;
+
+        List<String> urls = warmupUrls();
+        if (urls.isEmpty()) {
+            System.out.println("[Warmup] Aucune URL GET sans paramètre à appeler");
+            ready = true;
+            return;
+        }
+
+        Thread thread = new Thread(() -> drive(servlet, context, urls), "framework-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void drive(Servlet servlet, ServletContext context, List<String> urls) {
+        long start = System.nanoTime();
+        long deadline = start + timeoutMillis * 1_000_000;
+        int sent = 0;
+        int failed = 0;
+
+        try {
+            for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                for (String url : urls) {
+                    HttpServletRequest req = SyntheticExchange.request(context, url);
+                    HttpServletResponse resp = SyntheticExchange.response();
+                    try {
+                        servlet.service(req, resp);
+                        if (resp.getStatus() >= 400) {
+                            failed++;
+                        }
+                    } catch (Exception e) {
+                        failed++;
+                    }
+                    sent++;
+                }
+            }
+        } finally {
+            ready = true;
+            System.out.println("[Warmup] " + sent + " requêtes fictives sur " + urls.size() + " URLs ("
+                    + failed + " en erreur, " + (System.nanoTime() - start) / 1_000_000
+                    + " ms) : application prête");
+        }
+    }
+
+    /**
+     * URLs configurées (framework.warmup.urls, séparées par des virgules), sinon
+     * toutes les routes GET publiques sans paramètre de chemin qui ne renvoient
+     * pas de vue (le forward vers une JSP exige une vraie requête)
+     */
+    private List<String> warmupUrls() {
+        List<String> urls = new ArrayList<>();
+        if (!configuredUrls.isEmpty()) {
+            for (String url : configuredUrls.split(",")) {
+                if (!url.isBlank()) {
+                    urls.add(url.trim());
+                }
+            }
+            return urls;
+        }
+
+        for (List<RegisteredRoute> registered : routes.values()) {
+            for (RegisteredRoute route : registered) {
+                if (!"GET".equals(route.getHttpMethod()) || route.getParamNames().length > 0) {
+                    continue;
+                }
+                try {
+                    MethodInvoker invoker = route.getInvoker();
+                    if (invoker.getSecurityPolicy().isPublic()
+                            && !ModelView.class.isAssignableFrom(invoker.getMethod().getReturnType())) {
+                        urls.add(route.getUrlPattern());
+                    }
+                } catch (RuntimeException e) {
+                    // route non préparée (déjà signalée) : ignorée
+                }
+            }
+        }
+        return urls;
+    }
+}